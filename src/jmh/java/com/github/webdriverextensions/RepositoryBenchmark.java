@@ -0,0 +1,180 @@
+package com.github.webdriverextensions;
+
+import com.google.gson.GsonBuilder;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how the resolution of drivers scales with the size of the
+ * repository, on generated repositories of {@code entries} drivers. Run with
+ * <code>-prof gc</code> for the bytes allocated per operation:
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.args="RepositoryBenchmark -prof gc"
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.args="RepositoryBenchmark.getLatestDrivers -p entries=200000"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RepositoryBenchmark {
+
+    /**
+     * the platforms, bits and architectures every driver exists for
+     */
+    private static final String[][] TARGETS = {
+        {"linux", "32", "x86"},
+        {"linux", "64", "amd64"},
+        {"linux", "64", "aarch64"},
+        {"mac", "64", "amd64"},
+        {"mac", "64", "aarch64"},
+        {"windows", "32", "x86"},
+        {"windows", "64", "amd64"}
+    };
+
+    @Param({"100", "1000", "10000", "50000"})
+    public int entries;
+
+    /**
+     * the number of different driver names. the more names, the fewer
+     * versions of each driver.
+     */
+    @Param("20")
+    public int names;
+
+    private Path directory;
+    private URL repositoryUrl;
+    private Repository repository;
+    private List<Driver> shuffledDrivers;
+
+    @Setup(Level.Trial)
+    public void generateRepository() throws IOException, MojoExecutionException {
+        List<Driver> drivers = generateDrivers();
+        directory = Files.createTempDirectory("repository-benchmark");
+        Path repositoryFile = directory.resolve("repository.json");
+        String json = new GsonBuilder()
+                .excludeFieldsWithoutExposeAnnotation()
+                .setPrettyPrinting()
+                .create()
+                .toJson(Collections.singletonMap("drivers", drivers));
+        Files.write(repositoryFile, json.getBytes(StandardCharsets.UTF_8));
+        repositoryUrl = repositoryFile.toUri().toURL();
+        repository = Repository.load(repositoryUrl, Optional.empty());
+        shuffledDrivers = drivers;
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteRepository() throws IOException {
+        Files.delete(directory.resolve("repository.json"));
+        Files.delete(directory);
+    }
+
+    /**
+     * reading, parsing and sorting the repository
+     */
+    @Benchmark
+    public Repository load() throws MojoExecutionException {
+        return Repository.load(repositoryUrl, Optional.empty());
+    }
+
+    /**
+     * resolving a driver configured by its name only, which looks up its
+     * latest version first
+     */
+    @Benchmark
+    public Driver enrichDriverByName() throws MojoExecutionException {
+        Driver driver = new Driver();
+        driver.setName("driver-0");
+        return repository.enrichDriver(driver);
+    }
+
+    /**
+     * resolving a driver configured with platform, bit and version, which is
+     * looked up twice
+     */
+    @Benchmark
+    public Driver enrichDriverByVersion() throws MojoExecutionException {
+        Driver driver = new Driver();
+        driver.setName("driver-0");
+        driver.setPlatform("linux");
+        driver.setBit("64");
+        driver.setVersion(version(0));
+        return repository.enrichDriver(driver);
+    }
+
+    @Benchmark
+    public List<Driver> getLatestDrivers() {
+        return repository.getLatestDrivers();
+    }
+
+    /**
+     * sorting the drivers in the order of the repository. copying the list
+     * is cheap compared to the comparisons of the versions.
+     */
+    @Benchmark
+    public List<Driver> sortDrivers() {
+        List<Driver> drivers = new ArrayList<>(shuffledDrivers);
+        drivers.sort(Repository.driversComparator());
+        return drivers;
+    }
+
+    /**
+     * @return every driver name for every target in ever newer versions until
+     * there are {@link #entries}, in random order like in a repository
+     * maintained by hand
+     */
+    private List<Driver> generateDrivers() {
+        List<Driver> drivers = new ArrayList<>(entries);
+        for (int version = 0; drivers.size() < entries; version++) {
+            for (int name = 0; name < names && drivers.size() < entries; name++) {
+                for (int target = 0; target < TARGETS.length && drivers.size() < entries; target++) {
+                    Driver driver = new Driver();
+                    driver.setName("driver-" + name);
+                    driver.setPlatform(TARGETS[target][0]);
+                    driver.setBit(TARGETS[target][1]);
+                    driver.setArch(TARGETS[target][2]);
+                    driver.setVersion(version(version));
+                    driver.setUrl("https://example.com/driver-" + name + "/" + driver.getVersion() + "/"
+                            + TARGETS[target][0] + TARGETS[target][1] + "-" + TARGETS[target][2] + ".zip");
+                    drivers.add(driver);
+                }
+            }
+        }
+        Collections.shuffle(drivers, new Random(42));
+        return drivers;
+    }
+
+    /**
+     * @return a version with three parts and every now and then a
+     * pre-release qualifier, so that versions compare like in a real
+     * repository
+     */
+    private static String version(int index) {
+        return (index / 100 + 1) + "." + (index / 10 % 10) + "." + (index % 10) + (index % 7 == 6 ? "-beta" : "");
+    }
+}
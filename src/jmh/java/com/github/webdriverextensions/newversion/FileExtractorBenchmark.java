@@ -0,0 +1,135 @@
+package com.github.webdriverextensions.newversion;
+
+import com.github.webdriverextensions.newversion.ArchiveGenerator.Content;
+import com.github.webdriverextensions.newversion.ArchiveGenerator.Layout;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.codehaus.plexus.util.FileUtils;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how fast {@link FileExtractorImpl#extractFile(Path, Path)} extracts
+ * generated archives of every format, with and without a
+ * <code>fileMatchInside</code> selecting a single file. Besides the operations
+ * per second, the <code>contentBytes</code> counter reports the extracted
+ * bytes per second. Run with <code>-prof gc</code> for the allocation rate:
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.args="FileExtractorBenchmark -prof gc"
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.args="FileExtractorBenchmark -p format=zip,tar.gz -p size=67108864 -p entries=4096"
+ * </pre> The compressed formats without tar always contain a single file, so
+ * {@code layout} and {@code entries} make no difference for them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FileExtractorBenchmark {
+
+    @Param({"zip", "tar", "tar.gz", "tar.bz2", "tar.xz", "tar.zst", "gz", "bz2", "xz", "zst"})
+    public String format;
+
+    @Param({"SINGLE_FILE", "DEEP_TREE", "LARGE_BINARY"})
+    public Layout layout;
+
+    /**
+     * the uncompressed size of the archive content in bytes
+     */
+    @Param("16777216")
+    public long size;
+
+    @Param("256")
+    public int entries;
+
+    /**
+     * if only the file in the middle of the archive is extracted
+     */
+    @Param({"false", "true"})
+    public boolean fileMatchInside;
+
+    /**
+     * the number of threads extracting zip entries or decompressing bzip2 and
+     * xz blocks. 0 for one per processor.
+     */
+    @Param("0")
+    public int parallelism;
+
+    private Path directory;
+    private Path archive;
+    private Path toDirectory;
+    private long contentSize;
+    private FileExtractorImpl extractor;
+
+    /**
+     * the extracted bytes, reported per second
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class ExtractedBytes {
+
+        public long contentBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            contentBytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void generateArchive() throws IOException {
+        directory = Files.createTempDirectory("file-extractor-benchmark");
+        archive = directory.resolve("driver." + format);
+        toDirectory = directory.resolve("extracted");
+        Content content = ArchiveGenerator.layout(layout, size, entries);
+        ArchiveGenerator.write(archive, content);
+        boolean singleFile = !format.equals("zip") && !format.startsWith("tar");
+        String pattern = fileMatchInside && !singleFile ? content.getDriver() : null;
+        extractor = new FileExtractorImpl(pattern, null, parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        emptyDirectory();
+        extractor.extractFile(archive, toDirectory);
+        contentSize = sizeOf(toDirectory);
+    }
+
+    /**
+     * removes the files extracted before, which would not be overwritten
+     */
+    @Setup(Level.Invocation)
+    public void emptyDirectory() throws IOException {
+        FileUtils.deleteDirectory(toDirectory.toFile());
+        Files.createDirectories(toDirectory);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteArchive() throws IOException {
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    @Benchmark
+    public void extractFile(ExtractedBytes extractedBytes) {
+        extractor.extractFile(archive, toDirectory);
+        extractedBytes.contentBytes += contentSize;
+    }
+
+    private static long sizeOf(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+        }
+    }
+}
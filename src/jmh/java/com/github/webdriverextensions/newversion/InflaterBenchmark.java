@@ -0,0 +1,124 @@
+package com.github.webdriverextensions.newversion;
+
+import com.github.webdriverextensions.newversion.ArchiveGenerator.Layout;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.codehaus.plexus.util.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares inflating with the pooled {@link GzipInflaterInputStream} and
+ * {@link ZipEntryInflaterInputStream} to the streams they replaced, without
+ * writing any file: a gzip file of {@code gzipSize} bytes and a zip archive of
+ * {@code zipEntries} entries of {@code zipEntrySize} bytes each.
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.args="InflaterBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class InflaterBenchmark {
+
+    @Param("67108864")
+    public long gzipSize;
+
+    @Param("2000")
+    public int zipEntries;
+
+    @Param("32768")
+    public long zipEntrySize;
+
+    private Path directory;
+    private Path gzip;
+    private ZipFile zipFile;
+    private List<ZipArchiveEntry> entries;
+    private final byte[] sink = new byte[64 * 1024];
+
+    @Setup(Level.Trial)
+    public void generateArchives() throws IOException {
+        directory = Files.createTempDirectory("inflater-benchmark");
+        gzip = directory.resolve("driver.gz");
+        ArchiveGenerator.write(gzip, ArchiveGenerator.layout(Layout.SINGLE_FILE, gzipSize, 1));
+        Path zip = directory.resolve("driver.zip");
+        ArchiveGenerator.write(zip, ArchiveGenerator.layout(Layout.DEEP_TREE, zipEntries * zipEntrySize, zipEntries));
+        zipFile = ZipFile.builder().setSeekableByteChannel(FileChannel.open(zip, StandardOpenOption.READ)).get();
+        entries = Collections.list(zipFile.getEntries());
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteArchives() throws IOException {
+        zipFile.close();
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    @Benchmark
+    public long gzipCommonsCompress() throws IOException {
+        try (InputStream in = new GzipCompressorInputStream(Files.newInputStream(gzip), true)) {
+            return drain(in);
+        }
+    }
+
+    @Benchmark
+    public long gzipPooledInflater() throws IOException {
+        try (InputStream in = new GzipInflaterInputStream(Channels.newInputStream(FileChannel.open(gzip, StandardOpenOption.READ)))) {
+            return drain(in);
+        }
+    }
+
+    @Benchmark
+    public long zipGetInputStream() throws IOException {
+        long size = 0;
+        for (ZipArchiveEntry entry : entries) {
+            try (InputStream in = zipFile.getInputStream(entry)) {
+                size += drain(in);
+            }
+        }
+        return size;
+    }
+
+    @Benchmark
+    public long zipPooledInflater() throws IOException {
+        long size = 0;
+        for (ZipArchiveEntry entry : entries) {
+            try (InputStream in = new ZipEntryInflaterInputStream(zipFile.getRawInputStream(entry), entry)) {
+                size += drain(in);
+            }
+        }
+        return size;
+    }
+
+    private long drain(InputStream in) throws IOException {
+        long size = 0;
+        for (int count = in.read(sink); count != -1; count = in.read(sink)) {
+            size += count;
+        }
+        return size;
+    }
+}
@@ -23,6 +23,16 @@ public class Driver {
     private String url;
     @Expose
     private String fileMatchInside;
+    /**
+     * the number of files {@link #fileMatchInside} is expected to match.
+     * extraction stops as soon as this many files have been extracted. if
+     * empty, a {@link #fileMatchInside} that is just a path is expected to
+     * match one file and any other pattern an unknown number of files.
+     *
+     * @since 4.1.0
+     */
+    @Expose
+    private Integer fileMatchInsideCount;
     @Expose
     private String customFileName;
     /**
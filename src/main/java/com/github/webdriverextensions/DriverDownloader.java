@@ -9,6 +9,7 @@ import java.util.Optional;
 import javax.annotation.Nonnull;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import org.apache.hc.client5.http.ClientProtocolException;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.config.ConnectionConfig;
@@ -19,7 +20,10 @@ import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpResponse;
 import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.protocol.HttpContext;
 import org.apache.hc.core5.util.TimeValue;
 import org.apache.hc.core5.util.Timeout;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -36,6 +40,12 @@ class DriverDownloader implements Closeable {
     private int responseTimeout;
     private int maxRetries;
     private int retryDelay;
+    private int maxConnections;
+    /**
+     * if set, downloads, cache hits and retries are counted
+     */
+    @Setter
+    private InstallationMetrics metrics;
     private Optional<Proxy> proxy = Optional.empty();
 
     void open() {
@@ -66,39 +76,65 @@ class DriverDownloader implements Closeable {
         return this;
     }
 
+    /**
+     * @param maxConnections the maximum number of concurrent downloads per
+     * host. the default of the http client is used if not positive.
+     */
+    DriverDownloader withMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+        return this;
+    }
+
     Path downloadFile(Driver driver, Path baseDownloadDirectory) throws MojoExecutionException {
         String url = driver.getUrl();
         Path downloadDirectory = baseDownloadDirectory.resolve(driver.getDriverDownloadDirectoryName());
         Path downloadFilePath = downloadDirectory.resolve(driver.getFilenameFromUrl());
 
-        if (downloadFilePath.toFile().exists() && downloadCompletedFileExists(downloadDirectory)) {
-            log.info("  Using cached driver from " + quote(downloadFilePath));
-        } else {
-            log.info("  Downloading " + quote(url) + " to " + quote(downloadFilePath));
-            try {
-                httpClient.execute(new HttpGet(url), fileDownloadResponse -> {
-                    final int statusCode = fileDownloadResponse.getCode();
-                    if (HttpStatus.SC_OK == statusCode) {
-                        Files.createDirectories(downloadFilePath);
-                        Files.copy(fileDownloadResponse.getEntity().getContent(), downloadFilePath, StandardCopyOption.REPLACE_EXISTING);
-                    } else {
-                        throw new ClientProtocolException(String.valueOf(statusCode));
-                    }
-                    return null;
-                });
-            } catch (ClientProtocolException e) {
-                throw new InstallDriversMojoExecutionException("Download failed with status code " + e.getLocalizedMessage(), driver, null);
-            } catch (IOException e) {
-                throw new InstallDriversMojoExecutionException("Failed to download driver from " + quote(url) + " to " + quote(downloadFilePath), driver, e);
+        OperationEvent event = OperationEvent.begin(OperationEvent.Type.DOWNLOAD).driver(driver);
+        try {
+            if (downloadFilePath.toFile().exists() && downloadCompletedFileExists(downloadDirectory)) {
+                log.info("  Using cached driver from " + quote(downloadFilePath));
+                if (metrics != null) {
+                    metrics.downloadCacheHit(driver);
+                }
+                event.cacheStatus("hit");
+            } else {
+                log.info("  Downloading " + quote(url) + " to " + quote(downloadFilePath));
+                long downloadedBytes;
+                try {
+                    downloadedBytes = httpClient.execute(new HttpGet(url), fileDownloadResponse -> {
+                        final int statusCode = fileDownloadResponse.getCode();
+                        if (HttpStatus.SC_OK == statusCode) {
+                            Files.createDirectories(downloadFilePath);
+                            return Files.copy(fileDownloadResponse.getEntity().getContent(), downloadFilePath, StandardCopyOption.REPLACE_EXISTING);
+                        } else {
+                            throw new ClientProtocolException(String.valueOf(statusCode));
+                        }
+                    });
+                } catch (ClientProtocolException e) {
+                    throw new InstallDriversMojoExecutionException("Download failed with status code " + e.getLocalizedMessage(), driver, null);
+                } catch (IOException e) {
+                    throw new InstallDriversMojoExecutionException("Failed to download driver from " + quote(url) + " to " + quote(downloadFilePath), driver, e);
+                }
+                createDownloadCompletedFile(downloadDirectory);
+                if (metrics != null) {
+                    metrics.downloaded(driver, downloadedBytes);
+                }
+                event.cacheStatus("miss").bytes(downloadedBytes);
             }
-            createDownloadCompletedFile(downloadDirectory);
+        } finally {
+            event.end();
         }
         return downloadFilePath;
     }
 
     private CloseableHttpClient createHttpClient() {
         final ConnectionConfig connConfig = ConnectionConfig.custom().setConnectTimeout(Timeout.ofSeconds(connectTimeout)).build();
-        final PoolingHttpClientConnectionManager connManager = PoolingHttpClientConnectionManagerBuilder.create().setDefaultConnectionConfig(connConfig).build();
+        final PoolingHttpClientConnectionManagerBuilder connManagerBuilder = PoolingHttpClientConnectionManagerBuilder.create().setDefaultConnectionConfig(connConfig);
+        if (maxConnections > 0) {
+            connManagerBuilder.setMaxConnPerRoute(maxConnections).setMaxConnTotal(Math.max(maxConnections, 25));
+        }
+        final PoolingHttpClientConnectionManager connManager = connManagerBuilder.build();
         HttpClientBuilder httpClientBuilder = HttpClients.custom().setDefaultRequestConfig(RequestConfig.custom()
                 .setResponseTimeout(Timeout.ofSeconds(responseTimeout))
                 .build()
@@ -106,7 +142,7 @@ class DriverDownloader implements Closeable {
                 .disableCookieManagement()
                 .disableContentCompression()
                 .setConnectionManager(connManager)
-                .setRetryStrategy(new DefaultHttpRequestRetryStrategy(maxRetries, TimeValue.ofSeconds(retryDelay)));
+                .setRetryStrategy(createRetryStrategy());
 
         proxy.ifPresent(proxy -> {
             ProxyUtils.createProxyFromSettings(proxy).ifPresent(httpClientBuilder::setProxy);
@@ -115,6 +151,27 @@ class DriverDownloader implements Closeable {
         return httpClientBuilder.build();
     }
 
+    private DefaultHttpRequestRetryStrategy createRetryStrategy() {
+        return new DefaultHttpRequestRetryStrategy(maxRetries, TimeValue.ofSeconds(retryDelay)) {
+            @Override
+            public boolean retryRequest(HttpRequest request, IOException exception, int execCount, HttpContext context) {
+                return countRetry(super.retryRequest(request, exception, execCount, context));
+            }
+
+            @Override
+            public boolean retryRequest(HttpResponse response, int execCount, HttpContext context) {
+                return countRetry(super.retryRequest(response, execCount, context));
+            }
+        };
+    }
+
+    private boolean countRetry(boolean retry) {
+        if (retry && metrics != null) {
+            metrics.retried();
+        }
+        return retry;
+    }
+
     private boolean downloadCompletedFileExists(Path downloadDirectory) {
         Path downloadCompletedFile = downloadDirectory.resolve("download.completed");
         return Files.exists(downloadCompletedFile);
@@ -1,12 +1,14 @@
 package com.github.webdriverextensions;
 
 import com.github.webdriverextensions.newversion.FileExtractor;
-import com.github.webdriverextensions.newversion.FileExtractorImpl;
+import com.github.webdriverextensions.newversion.FileExtractorRegistry;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Optional;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
 
@@ -16,23 +18,81 @@ import static com.github.webdriverextensions.Utils.quote;
 class DriverExtractor {
     private final Log log;
     private final Path tempDirectory;
+    private final FileExtractorRegistry fileExtractorRegistry = FileExtractorRegistry.load();
 
-    Path extractDriver(Driver driver, Path downloadedFile) throws MojoExecutionException {
-        FileExtractor fileExtractor = new FileExtractorImpl(driver.getFileMatchInside());
-        Path extractDirectory = tempDirectory.resolve(driver.getDriverDownloadDirectoryName());
+    /**
+     * if set, extracted drivers are kept in and taken from this cache. the
+     * returned extract location must then be left untouched.
+     */
+    @Setter
+    private ExtractionCache cache;
+
+    /**
+     * if set, drivers are extracted to the locations it creates instead of the
+     * temp directory. ignored if a cache is set.
+     */
+    @Setter
+    private ExtractLocationFactory extractLocationFactory;
+
+    /**
+     * if set, hits and misses of the cache are counted
+     */
+    @Setter
+    private InstallationMetrics metrics;
 
+    Path extractDriver(Driver driver, Path downloadedFile) throws MojoExecutionException {
+        OperationEvent event = OperationEvent.begin(OperationEvent.Type.EXTRACT).driver(driver).bytesOf(downloadedFile);
         try {
-            Files.createDirectories(extractDirectory);
-            if (fileExtractor.isExtractable(downloadedFile)) {
-                log.info("  Extracting " + quote(downloadedFile) + " to temp folder");
-                fileExtractor.extractFile(downloadedFile, extractDirectory);
-            } else {
-                log.info("  Copying " + quote(downloadedFile) + " to temp folder");
-                Files.copy(downloadedFile, extractDirectory.resolve(downloadedFile.getFileName()));
+            if (cache == null) {
+                return extract(driver, downloadedFile);
+            }
+            String cacheKey = ExtractionCache.keyFor(downloadedFile, driver.getFileMatchInside(), driver.getFileMatchInsideCount());
+            Optional<Path> cachedExtractLocation = cache.lookup(cacheKey);
+            if (cachedExtractLocation.isPresent()) {
+                log.info("  Using cached extraction of " + quote(downloadedFile) + " from " + quote(cachedExtractLocation.get()));
+                if (metrics != null) {
+                    metrics.extractCacheHit(driver);
+                }
+                event.cacheStatus("hit");
+                return cachedExtractLocation.get();
+            }
+            if (metrics != null) {
+                metrics.extractCacheMiss(driver);
             }
-            return extractDirectory;
+            event.cacheStatus("miss");
+            return cache.store(cacheKey, extract(driver, downloadedFile));
         } catch (IOException e) {
             throw new InstallDriversMojoExecutionException("Failed to extract driver from " + quote(downloadedFile), driver, e);
+        } finally {
+            event.end();
         }
     }
+
+    private Path extract(Driver driver, Path downloadedFile) throws IOException {
+        FileExtractor fileExtractor = fileExtractorRegistry.fileExtractorFor(downloadedFile, driver.getFileMatchInside(), driver.getFileMatchInsideCount());
+        Path extractDirectory = cache == null && extractLocationFactory != null
+                ? extractLocationFactory.create(driver)
+                : tempDirectory.resolve(driver.getDriverDownloadDirectoryName());
+
+        Files.createDirectories(extractDirectory);
+        if (fileExtractor.isExtractable(downloadedFile)) {
+            log.info("  Extracting " + quote(downloadedFile) + " to " + quote(extractDirectory));
+            fileExtractor.extractFile(downloadedFile, extractDirectory);
+        } else {
+            log.info("  Copying " + quote(downloadedFile) + " to " + quote(extractDirectory));
+            Path copiedFile = extractDirectory.resolve(downloadedFile.getFileName());
+            Files.copy(downloadedFile, copiedFile);
+            // there is no archive metadata to take the permissions from. the driver binary must be executable.
+            copiedFile.toFile().setExecutable(true);
+        }
+        return extractDirectory;
+    }
+
+    @FunctionalInterface
+    interface ExtractLocationFactory {
+        /**
+         * @return a new, empty directory to extract the {@code driver} to
+         */
+        Path create(Driver driver) throws IOException;
+    }
 }
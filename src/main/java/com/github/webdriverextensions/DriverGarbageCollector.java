@@ -0,0 +1,271 @@
+package com.github.webdriverextensions;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.FileUtils;
+
+import static com.github.webdriverextensions.Utils.quote;
+
+/**
+ * Deletes what is no longer needed from the installation directory:
+ * <ul>
+ * <li>kept driver versions (see {@link DriverInstaller}) that are neither
+ * current nor retained. The current version and the {@code keepVersions}
+ * most recently used versions are retained, as well as the versions used
+ * within the last {@code keepDays} days.</li>
+ * <li>version and manifest files of drivers that are not installed
+ * anymore</li>
+ * <li>leftovers of failed or interrupted installations, including trees of
+ * directory drivers that are not linked anymore</li>
+ * </ul>
+ * Builds installing drivers concurrently are not disturbed: leftovers are
+ * only deleted once they are older than {@link #LEFTOVER_GRACE_PERIOD_MILLIS},
+ * and versions are picked and renamed out of the way while holding the
+ * {@link VersionsLock} a build holds while switching to a version.
+ * <p>
+ * When a version has been used last is recorded by a marker file next to it
+ * ({@code .<version>.used}, see {@link #touch(Path)}), not by the version
+ * itself: for a single file driver the version is the driver file, whose
+ * modification time is checked by {@link DriverManifest}.
+ */
+class DriverGarbageCollector {
+
+    static final long LEFTOVER_GRACE_PERIOD_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private static final String VERSIONS_SUFFIX = ".versions";
+    private static final Pattern METADATA_FILE = Pattern.compile("(.+)\\.(version|manifest)");
+    /**
+     * the names of the temporary files and directories created while
+     * installing, and of the trees directory drivers are installed into. the
+     * first group is the name of the driver.
+     */
+    private static final Pattern LEFTOVER = Pattern.compile("\\.(.+)\\.((staging|retired|extract|link|probe|tree)-[0-9a-f-]{36}|incomplete)");
+    private static final Pattern TREE = Pattern.compile("\\..+\\.tree-[0-9a-f-]{36}");
+    private static final Pattern USED_MARKER = Pattern.compile("\\.(.+)\\.used");
+
+    private final Log log;
+    private final Path installationDirectory;
+    private final int keepVersions;
+    private final int keepDays;
+    private final long now = System.currentTimeMillis();
+
+    /**
+     * @param keepVersions the number of kept versions of a driver to retain,
+     * including the current one
+     * @param keepDays versions used within this number of days are retained
+     */
+    DriverGarbageCollector(Log log, Path installationDirectory, int keepVersions, int keepDays) {
+        this.log = log;
+        this.installationDirectory = installationDirectory;
+        this.keepVersions = Math.max(1, keepVersions);
+        this.keepDays = keepDays;
+    }
+
+    /**
+     * @return the number of deleted files and directories
+     */
+    int collect() throws IOException {
+        File[] entries = installationDirectory.toFile().listFiles();
+        if (entries == null) {
+            return 0;
+        }
+        List<Path> garbage = new ArrayList<>();
+        for (File entry : entries) {
+            String name = entry.getName();
+            if (name.startsWith(".") && name.endsWith(VERSIONS_SUFFIX) && entry.isDirectory()) {
+                collectVersions(entry.toPath(), name.substring(1, name.length() - VERSIONS_SUFFIX.length()), garbage);
+            } else if (LEFTOVER.matcher(name).matches()) {
+                if (isStale(entry.toPath()) && !isLinked(entry.toPath(), name)) {
+                    garbage.add(entry.toPath());
+                }
+            } else if (METADATA_FILE.matcher(name).matches() && isOrphaned(name)) {
+                garbage.add(entry.toPath());
+            }
+        }
+        return deleteInParallel(garbage);
+    }
+
+    private void collectVersions(Path versionsDirectory, String id, List<Path> garbage) throws IOException {
+        try (VersionsLock lock = VersionsLock.acquire(versionsDirectory)) {
+            Path current = currentVersion(id);
+            List<Path> versions = new ArrayList<>();
+            for (File version : versionsDirectory.toFile().listFiles()) {
+                Matcher usedMarker = USED_MARKER.matcher(version.getName());
+                if (LEFTOVER.matcher(version.getName()).matches()) {
+                    // staging or replaced versions
+                    if (isStale(version.toPath())) {
+                        garbage.add(version.toPath());
+                    }
+                } else if (usedMarker.matches()) {
+                    if (!Files.exists(version.toPath().resolveSibling(usedMarker.group(1)), LinkOption.NOFOLLOW_LINKS)) {
+                        garbage.add(version.toPath());
+                    }
+                } else if (version.getName().startsWith(".")) {
+                    continue;
+                } else if (!version.toPath().normalize().equals(current)) {
+                    // normalized like the current version, e.g. if the installation directory contains ".."
+                    versions.add(version.toPath());
+                }
+            }
+            versions.sort(Comparator.comparingLong(DriverGarbageCollector::lastUsed).reversed());
+            int retained = current != null ? 1 : 0;
+            for (Path version : versions) {
+                if (retained < keepVersions || now - lastUsed(version) < TimeUnit.DAYS.toMillis(keepDays)) {
+                    retained++;
+                    continue;
+                }
+                Path retired = version.resolveSibling("." + version.getFileName() + ".retired-" + UUID.randomUUID());
+                // no build can switch to the version anymore once the lock is released
+                Files.move(version, retired, StandardCopyOption.ATOMIC_MOVE);
+                log.info("  Deleting driver version " + quote(version));
+                garbage.add(retired);
+                Files.deleteIfExists(usedMarkerFor(version));
+            }
+        }
+    }
+
+    /**
+     * @return the kept version or tree the installed driver links to or null
+     */
+    private Path currentVersion(String id) throws IOException {
+        for (String fileName : new String[]{id, id + ".exe"}) {
+            Path link = installationDirectory.resolve(fileName);
+            if (Files.isSymbolicLink(link)) {
+                return link.resolveSibling(Files.readSymbolicLink(link)).normalize();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return if {@code leftover} is the tree the installed driver links to
+     */
+    private boolean isLinked(Path leftover, String name) throws IOException {
+        if (!TREE.matcher(name).matches()) {
+            return false;
+        }
+        Matcher matcher = LEFTOVER.matcher(name);
+        matcher.matches();
+        return leftover.normalize().equals(currentVersion(matcher.group(1)));
+    }
+
+    /**
+     * @return if {@code name} is the name of a tree a directory driver is
+     * installed into
+     */
+    static boolean isTree(String name) {
+        return TREE.matcher(name).matches();
+    }
+
+    private boolean isOrphaned(String metadataFileName) {
+        Matcher matcher = METADATA_FILE.matcher(metadataFileName);
+        matcher.matches();
+        String id = matcher.group(1);
+        if (Files.exists(installationDirectory.resolve(id), LinkOption.NOFOLLOW_LINKS)
+                || Files.exists(installationDirectory.resolve(id + ".exe"), LinkOption.NOFOLLOW_LINKS)) {
+            return false;
+        }
+        // while a driver is replaced it is missing for a moment, its replaced or staged files are there though
+        String[] siblings = installationDirectory.toFile().list((directory, name) -> name.startsWith("." + id + "."));
+        return siblings == null || siblings.length == 0;
+    }
+
+    private boolean isStale(Path leftover) {
+        return now - lastModified(leftover) > LEFTOVER_GRACE_PERIOD_MILLIS;
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path, LinkOption.NOFOLLOW_LINKS).toMillis();
+        } catch (IOException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * @return when {@code version} has been used last, see {@link #touch(Path)}.
+     * the modification time of the version itself for versions used before
+     * markers were written.
+     */
+    private static long lastUsed(Path version) {
+        Path marker = usedMarkerFor(version);
+        return Files.exists(marker) ? lastModified(marker) : lastModified(version);
+    }
+
+    /**
+     * marks {@code version} as used now. the version itself is left
+     * untouched.
+     */
+    static void touch(Path version) throws IOException {
+        Path marker = usedMarkerFor(version);
+        try {
+            Files.setLastModifiedTime(marker, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (NoSuchFileException e) {
+            Files.write(marker, new byte[0]);
+        }
+    }
+
+    private static Path usedMarkerFor(Path version) {
+        return version.resolveSibling("." + version.getFileName() + ".used");
+    }
+
+    private int deleteInParallel(List<Path> garbage) throws IOException {
+        if (garbage.isEmpty()) {
+            return 0;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(garbage.size(), Runtime.getRuntime().availableProcessors()), runnable -> {
+            Thread thread = new Thread(runnable, "webdriverextensions-gc");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger deleted = new AtomicInteger();
+        try {
+            List<Future<?>> deletions = new ArrayList<>();
+            for (Path path : garbage) {
+                deletions.add(executor.submit(() -> {
+                    try {
+                        if (Files.isSymbolicLink(path)) {
+                            Files.delete(path);
+                        } else {
+                            FileUtils.forceDelete(path.toFile());
+                        }
+                        log.debug("Deleted " + quote(path));
+                        deleted.incrementAndGet();
+                    } catch (IOException e) {
+                        log.warn("Failed to delete " + quote(path), e);
+                    }
+                }));
+            }
+            for (Future<?> deletion : deletions) {
+                deletion.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while deleting stale drivers", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to delete stale drivers", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return deleted.get();
+    }
+}
@@ -1,36 +1,107 @@
 package com.github.webdriverextensions;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileSystemException;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.HashSet;
 import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import lombok.Setter;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
 import org.codehaus.plexus.util.FileUtils;
-import org.codehaus.plexus.util.Os;
 
 import static com.github.webdriverextensions.Utils.quote;
 
-class DriverInstaller {
+/**
+ * Installs extracted drivers into the installation directory.
+ * <p>
+ * A driver is never replaced file by file. Its files are first placed into a
+ * sibling staging location inside the installation directory (thus on the
+ * same file system) and then switched into place by a rename. Single file
+ * drivers are replaced with one atomic rename. Directory drivers are
+ * installed into a tree of their own ({@code .<id>.tree-<UUID>}) and the
+ * installed driver is a symbolic link to it, which is replaced with one
+ * atomic rename as well. A reader thus either sees the complete old or the
+ * complete new driver, independent of its size. The old tree is deleted in
+ * the background; {@link #close()} waits for that. Without symbolic links
+ * (and to replace a directory installed by an earlier version of the plugin)
+ * a directory is replaced by two renames (old tree out, new tree in).
+ * <p>
+ * Files of an installed directory driver that are identical in the new
+ * version are kept (hard-linked into the staging location) instead of being
+ * copied again.
+ * <p>
+ * If installed versions are kept, every version is installed into a slot of
+ * its own ({@code .<id>.versions/<version>}) and the installed driver is a
+ * symbolic link to the current slot. Switching to a kept version just
+ * replaces the link. Slots are installed and linked while holding the
+ * {@link VersionsLock}, so that {@link DriverGarbageCollector} does not delete
+ * them meanwhile.
+ * <p>
+ * Drivers can also be extracted straight into the installation directory
+ * (see {@link #createExtractLocation(Driver)}). They are then switched into
+ * place without being moved file by file.
+ */
+class DriverInstaller implements Closeable {
     private final Path installationDirectory;
     private final Log log;
     private final DriverVersionHandler versionHandler;
-    
+    private final DriverManifest manifest;
+    private final ExecutorService cleanupExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "webdriverextensions-cleanup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     @Setter
     private Properties driverPathProperyTarget;
+    @Setter
+    private InstallMode installMode = InstallMode.MOVE;
+    /**
+     * if installed drivers are verified against their manifest before their
+     * installation is skipped
+     */
+    @Setter
+    private boolean verifyInstalledDrivers;
+    /**
+     * if installed versions are kept side by side and the installed driver is
+     * a symbolic link to the current one
+     */
+    @Setter
+    private boolean keepInstalledVersions;
+    private Boolean symbolicLinksSupported;
+    private boolean hardLinksSupported = true;
+    private boolean keepUnchangedFilesSupported = true;
+    private int unchangedFiles;
+    private final Set<Path> extractLocations = new HashSet<>();
 
     DriverInstaller(Log log, Path installationDirectory) {
         this.log = log;
         this.installationDirectory = installationDirectory;
         this.versionHandler = new DriverVersionHandler(installationDirectory);
+        this.manifest = new DriverManifest(log, installationDirectory);
     }
 
     boolean needInstallation(Driver driver) {
         try {
-            return !isInstalled(driver) || !versionHandler.isSameVersion(driver);
+            return !isInstalled(driver) || !versionHandler.isSameVersion(driver) || verifyInstalledDrivers && !manifest.isIntact(driver);
         } catch (MojoExecutionException ex) {
             log.warn("Could not determine if same version of driver is already installed, will install it again", ex);
             return true;
@@ -43,25 +114,144 @@ class DriverInstaller {
             throw new InstallDriversMojoExecutionException("Failed to install driver since no files found to install", driver, null);
         }
 
+        OperationEvent event = OperationEvent.begin(OperationEvent.Type.INSTALL).driver(driver);
+        VersionsLock versionsLock = null;
         try {
             Files.createDirectories(installationDirectory);
-            if (directoryContainsSingleDirectory(extractLocation)) {
+            Path directoryTarget = installationDirectory.resolve(driver.getId());
+            Path fileTarget = installationDirectory.resolve(driver.getFileName());
+            Path versionDirectory = null;
+            if (keepsInstalledVersions()) {
+                // installed into the slot of its version, which is linked afterwards
+                versionDirectory = versionDirectoryFor(driver);
+                Files.createDirectories(versionDirectory.getParent());
+                // the version must not be collected as garbage before it is linked
+                versionsLock = VersionsLock.acquire(versionDirectory.getParent());
+                directoryTarget = versionDirectory;
+                fileTarget = versionDirectory;
+            } else if (symbolicLinksSupported()) {
+                // a directory is installed into a tree of its own, which is linked afterwards
+                directoryTarget = siblingPath(directoryTarget, "tree");
+            }
+
+            Path installed;
+            if (extractLocations.contains(extractLocation)) {
+                installed = installFromExtractLocationInPlace(driver, extractLocation, directoryTarget, fileTarget);
+            } else if (directoryContainsSingleDirectory(extractLocation)) {
                 Path singleDirectory = extractLocation.toFile().listFiles()[0].toPath();
-                moveAllFilesInDirectory(singleDirectory, installationDirectory.resolve(driver.getId()));
+                installed = directoryTarget;
+                moveAllFilesInDirectory(singleDirectory, installed, installationDirectory.resolve(driver.getId()));
             } else if (directoryContainsSingleFile(extractLocation)) {
-                String newFileName = driver.getFileName();
-                moveFileInDirectory(extractLocation, installationDirectory, newFileName);
-                makeExecutable(installationDirectory.resolve(newFileName));
-                setDriverPathProperty(driver, installationDirectory.resolve(newFileName));
+                installed = fileTarget;
+                moveFileInDirectory(extractLocation, fileTarget.getParent(), fileTarget.getFileName().toString());
             } else {
-                moveAllFilesInDirectory(extractLocation, installationDirectory.resolve(driver.getId()));
+                installed = directoryTarget;
+                moveAllFilesInDirectory(extractLocation, installed, installationDirectory.resolve(driver.getId()));
+            }
+            if (versionDirectory != null) {
+                linkVersion(driver, versionDirectory);
+            } else if (isTree(installed)) {
+                // a tree older than the grace period would be taken for a leftover by a concurrent garbage collection
+                Files.setLastModifiedTime(installed, FileTime.fromMillis(System.currentTimeMillis()));
+                link(installationDirectory.resolve(driver.getId()), installed);
+            }
+            if (Files.isRegularFile(installed)) {
+                setDriverPathProperty(driver, installationDirectory.resolve(driver.getFileName()));
             }
 
+            if (verifyInstalledDrivers) {
+                manifest.write(driver, installed);
+            } else {
+                // would be outdated
+                manifest.delete(driver);
+            }
             versionHandler.writeVersionFile(driver);
         } catch (IOException | MojoExecutionException e) {
             throw new InstallDriversMojoExecutionException("Failed to install driver", driver, e);
+        } finally {
+            if (versionsLock != null) {
+                unlock(versionsLock);
+            }
+            if (extractLocations.remove(extractLocation)) {
+                deleteQuietly(extractLocation);
+            }
+            event.end();
+        }
+    }
+
+    /**
+     * switches to the installed version of the driver if it is kept side by
+     * side with the current one
+     *
+     * @return if the driver has been switched, so it does not need to be
+     * installed
+     */
+    boolean switchToKeptVersion(Driver driver) throws MojoExecutionException {
+        if (!keepInstalledVersions) {
+            return false;
         }
+        Path versionDirectory = versionDirectoryFor(driver);
+        if (!Files.isDirectory(versionDirectory.getParent())) {
+            return false;
+        }
+        // the version must not be collected as garbage while switching to it
+        try (VersionsLock versionsLock = VersionsLock.acquire(versionDirectory.getParent())) {
+            if (!Files.exists(versionDirectory, LinkOption.NOFOLLOW_LINKS) || !keepsInstalledVersions()) {
+                return false;
+            }
+            Path link = linkFor(driver, versionDirectory);
+            if (Files.isSymbolicLink(link) && link.resolveSibling(Files.readSymbolicLink(link)).normalize().equals(versionDirectory.normalize())
+                    && versionHandler.isSameVersion(driver)) {
+                DriverGarbageCollector.touch(versionDirectory);
+                return false;
+            }
+            log.info(driver.getId() + " version " + driver.getVersion() + " is kept installed, switching to it");
+            linkVersion(driver, versionDirectory);
+            if (verifyInstalledDrivers) {
+                manifest.write(driver, versionDirectory);
+            } else {
+                manifest.delete(driver);
+            }
+            versionHandler.writeVersionFile(driver);
+            setDriverPathPropertyIfInstalled(driver);
+            return true;
+        } catch (IOException e) {
+            throw new InstallDriversMojoExecutionException("Failed to switch to installed driver version", driver, e);
+        }
+    }
+
+    /**
+     * creates a directory inside the installation directory to extract the
+     * driver to. installing from it only takes renames, so the extracted
+     * files are written exactly once. the directory is deleted by
+     * {@link #install(Driver, Path)} or {@link #close()}.
+     *
+     * @return the new, empty directory
+     */
+    Path createExtractLocation(Driver driver) throws IOException {
+        Files.createDirectories(installationDirectory);
+        Path extractLocation = siblingPath(installationDirectory.resolve(driver.getId()), "extract");
+        Files.createDirectory(extractLocation);
+        extractLocations.add(extractLocation);
+        return extractLocation;
+    }
 
+    /**
+     * waits until all replaced driver files are deleted
+     */
+    @Override
+    public void close() {
+        // extract locations of drivers that failed before being installed
+        extractLocations.forEach(this::deleteQuietly);
+        extractLocations.clear();
+        cleanupExecutor.shutdown();
+        try {
+            if (!cleanupExecutor.awaitTermination(5, TimeUnit.MINUTES)) {
+                log.warn("Timed out while deleting replaced drivers in " + quote(installationDirectory));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     void setDriverPathPropertyIfInstalled(Driver driver) {
@@ -69,7 +259,7 @@ class DriverInstaller {
             setDriverPathProperty(driver, installationDirectory.resolve(driver.getFileName()));
         }
     }
-    
+
     private void setDriverPathProperty(Driver driver, Path location) {
         final String driverName = driver.getName().toLowerCase();
         String propertyName = "";
@@ -108,43 +298,333 @@ class DriverInstaller {
         return files != null && files.length == 1 && files[0].isDirectory();
     }
 
+    /**
+     * switches the extracted files into place. the extract location is located
+     * in the installation directory, so the files are not copied.
+     *
+     * @return the installed driver file or directory
+     */
+    private Path installFromExtractLocationInPlace(Driver driver, Path extractLocation, Path directoryTarget, Path fileTarget) throws IOException, MojoExecutionException {
+        if (directoryContainsSingleDirectory(extractLocation)) {
+            Path singleDirectory = extractLocation.toFile().listFiles()[0].toPath();
+            log.info("  Moving " + quote(singleDirectory) + " to " + quote(directoryTarget));
+            switchIntoPlace(singleDirectory, directoryTarget);
+            return directoryTarget;
+        } else if (directoryContainsSingleFile(extractLocation)) {
+            Path singleFile = extractLocation.toFile().listFiles()[0].toPath();
+            log.info("  Moving " + quote(singleFile) + " to " + quote(fileTarget));
+            switchIntoPlace(singleFile, fileTarget);
+            return fileTarget;
+        } else {
+            log.info("  Moving " + quote(extractLocation) + " to " + quote(directoryTarget));
+            switchIntoPlace(extractLocation, directoryTarget);
+            return directoryTarget;
+        }
+    }
+
+    /**
+     * @return the location of the driver version if installed versions are
+     * kept: the driver directory or, for a single file driver, the file
+     */
+    private Path versionDirectoryFor(Driver driver) {
+        String version = driver.getVersion() != null ? driver.getVersion() : "unknown";
+        return installationDirectory.resolve("." + driver.getId() + ".versions").resolve(version.replaceAll("[^A-Za-z0-9._-]", "_"));
+    }
+
+    private Path linkFor(Driver driver, Path versionDirectory) {
+        return installationDirectory.resolve(Files.isDirectory(versionDirectory, LinkOption.NOFOLLOW_LINKS) ? driver.getId() : driver.getFileName());
+    }
+
+    /**
+     * atomically points the installed driver to {@code versionDirectory}
+     */
+    private void linkVersion(Driver driver, Path versionDirectory) throws IOException {
+        link(linkFor(driver, versionDirectory), versionDirectory);
+        DriverGarbageCollector.touch(versionDirectory);
+    }
+
+    /**
+     * atomically replaces {@code link} with a symbolic link to {@code target}
+     */
+    private void link(Path link, Path target) throws IOException {
+        Path newLink = siblingPath(link, "link");
+        // relative, so that the installation directory can be moved
+        Files.createSymbolicLink(newLink, installationDirectory.relativize(target));
+        try {
+            switchIntoPlace(newLink, link);
+        } finally {
+            Files.deleteIfExists(newLink);
+        }
+    }
+
+    private boolean keepsInstalledVersions() throws IOException {
+        return keepInstalledVersions && symbolicLinksSupported();
+    }
+
+    private boolean symbolicLinksSupported() throws IOException {
+        if (symbolicLinksSupported == null) {
+            Files.createDirectories(installationDirectory);
+            Path probe = siblingPath(installationDirectory.resolve("symlink"), "probe");
+            try {
+                Files.createSymbolicLink(probe, probe.getFileName());
+                symbolicLinksSupported = true;
+            } catch (UnsupportedOperationException | FileSystemException e) {
+                // e.g. on windows without the privilege to create symbolic links
+                if (keepInstalledVersions) {
+                    log.warn("Cannot keep installed versions side by side since symbolic links are not supported in " + quote(installationDirectory), e);
+                } else {
+                    log.debug("Symbolic links are not supported in " + quote(installationDirectory) + ", directories will be replaced by two renames", e);
+                }
+                symbolicLinksSupported = false;
+            } finally {
+                Files.deleteIfExists(probe);
+            }
+        }
+        return symbolicLinksSupported;
+    }
+
+    /**
+     * @return if {@code path} is a tree a directory driver is installed into
+     */
+    private boolean isTree(Path path) {
+        return installationDirectory.normalize().equals(path.normalize().getParent()) && DriverGarbageCollector.isTree(path.getFileName().toString());
+    }
+
     private void moveFileInDirectory(Path from, Path to, String newFileName) throws MojoExecutionException {
         assert directoryContainsSingleFile(from);
+        Path target = to.resolve(newFileName);
+        Path staging = stagingPathFor(target);
         try {
             File[] files = from.toFile().listFiles();
             Path singleFile = files[0].toPath();
-            log.info("  Moving (one File) " + quote(singleFile) + " to " + quote(to.resolve(newFileName)));
-            FileUtils.forceDelete(to.resolve(newFileName).toFile());
-            Files.move(singleFile, to.resolve(newFileName), StandardCopyOption.REPLACE_EXISTING);
+            log.info("  " + transferVerb() + " (one File) " + quote(singleFile) + " to " + quote(target));
+            transfer(singleFile, staging, null);
+            switchIntoPlace(staging, target);
         } catch (IOException e) {
-            throw new InstallDriversMojoExecutionException("Failed to move file in directory " + quote(from) + " to " + quote(to.resolve(newFileName)), e);
+            throw new InstallDriversMojoExecutionException("Failed to move file in directory " + quote(from) + " to " + quote(target), e);
+        } finally {
+            deleteQuietly(staging);
         }
     }
 
-    private void moveAllFilesInDirectory(Path from, Path to) throws MojoExecutionException {
+    /**
+     * @param installed the currently installed driver, whose unchanged files
+     * are kept
+     */
+    private void moveAllFilesInDirectory(Path from, Path to, Path installed) throws MojoExecutionException {
+        Path staging = stagingPathFor(to);
         try {
-            Files.createDirectories(to);
+            Files.createDirectory(staging);
             for (File file : from.toFile().listFiles()) {
-                log.info("  Moving (All Files) " + file + " to " + to.resolve(file.toPath().getFileName()));
-                FileUtils.forceDelete(to.resolve(file.toPath().getFileName()).toFile());
-                if (Os.isFamily(Os.FAMILY_WINDOWS) && file.isDirectory()) {
-                    // (on windows) it is not possible to move a non-empty directory (DirectoryNotEmptyException). copy and delete should be used instead.
-                    FileUtils.copyDirectory(file, to.resolve(file.toPath().getFileName()).toFile());
-                    FileUtils.forceDelete(file);
-                } else {
-                    Files.move(file.toPath(), to.resolve(file.toPath().getFileName()), StandardCopyOption.REPLACE_EXISTING);
-                }
-                makeExecutable(to.resolve(file.toPath().getFileName()));
+                Path stagedFile = staging.resolve(file.toPath().getFileName());
+                log.info("  " + transferVerb() + " (All Files) " + file + " to " + to.resolve(file.toPath().getFileName()));
+                transfer(file.toPath(), stagedFile, installed.resolve(file.toPath().getFileName()));
+            }
+            if (unchangedFiles > 0) {
+                log.info("  Kept " + unchangedFiles + " unchanged files of " + quote(installed));
+                unchangedFiles = 0;
             }
+            switchIntoPlace(staging, to);
         } catch (IOException e) {
             throw new InstallDriversMojoExecutionException("Failed to move directory " + quote(from) + " to " + quote(to), e);
+        } finally {
+            deleteQuietly(staging);
         }
     }
 
-    private void makeExecutable(Path path) {
-        File file = path.toFile();
-        if (file.exists() && !file.canExecute()) {
-            file.setExecutable(true);
+    private String transferVerb() {
+        switch (installMode) {
+            case LINK:
+                return "Linking";
+            case COPY:
+                return "Copying";
+            default:
+                return "Moving";
+        }
+    }
+
+    /**
+     * @param installed the currently installed counterpart of {@code source}.
+     * if its files are unchanged they are kept instead of copying the new ones.
+     */
+    private void transfer(Path source, Path target, Path installed) throws IOException {
+        if (installMode != InstallMode.MOVE) {
+            linkOrCopy(source, target, installed);
+            return;
+        }
+        try {
+            Files.move(source, target);
+        } catch (DirectoryNotEmptyException e) {
+            // non-empty directories cannot be moved across file systems (and on windows across volumes). copy and delete should be used instead.
+            linkOrCopy(source, target, installed);
+            FileUtils.forceDelete(source.toFile());
+        }
+    }
+
+    private void linkOrCopy(Path source, Path target, Path installed) throws IOException {
+        if (!Files.isDirectory(source)) {
+            linkOrCopyFile(source, target, installed);
+            return;
+        }
+        Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                String relativePath = source.relativize(file).toString();
+                linkOrCopyFile(file, target.resolve(relativePath), installed == null ? null : installed.resolve(relativePath));
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void linkOrCopyFile(Path source, Path target, Path installed) throws IOException {
+        if (installMode == InstallMode.LINK && hardLinksSupported) {
+            try {
+                Files.createLink(target, source);
+                return;
+            } catch (UnsupportedOperationException | FileSystemException e) {
+                // e.g. FAT file systems or source and target are located on different file systems
+                log.debug("Could not create hard link " + quote(target) + ", will copy files instead", e);
+                hardLinksSupported = false;
+            }
+        }
+        if (installed != null && keepUnchangedFilesSupported && isUnchanged(source, installed)) {
+            try {
+                // the installed file is kept by linking it into the new tree, which is switched into place as a whole
+                Files.createLink(target, installed);
+                unchangedFiles++;
+                return;
+            } catch (UnsupportedOperationException | FileSystemException e) {
+                log.debug("Could not keep unchanged file " + quote(installed) + ", will copy files instead", e);
+                keepUnchangedFilesSupported = false;
+            }
+        }
+        Files.copy(source, target, StandardCopyOption.COPY_ATTRIBUTES);
+    }
+
+    /**
+     * compares the size first and the content only if the sizes are equal.
+     * equal modification times prove nothing: the extractor keeps the ones
+     * stored in the archive, and archives built with fixed timestamps contain
+     * changed files of the same size with the same modification time.
+     */
+    private static boolean isUnchanged(Path source, Path installed) throws IOException {
+        BasicFileAttributes installedAttributes;
+        try {
+            installedAttributes = Files.readAttributes(installed, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        BasicFileAttributes sourceAttributes = Files.readAttributes(source, BasicFileAttributes.class);
+        if (!installedAttributes.isRegularFile()
+                || installedAttributes.size() != sourceAttributes.size()
+                || installed.toFile().canExecute() != source.toFile().canExecute()) {
+            return false;
+        }
+        return Checksums.sha256(installed).equals(Checksums.sha256(source));
+    }
+
+    /**
+     * replaces {@code target} with {@code staged}. both must be located in the
+     * installation directory. a replaced directory tree, or the tree a
+     * replaced link points to, is deleted asynchronously.
+     */
+    private void switchIntoPlace(Path staged, Path target) throws IOException {
+        Path linkedTree = linkedTree(target);
+        boolean targetExists = Files.exists(target, LinkOption.NOFOLLOW_LINKS);
+        if (!targetExists || (!Files.isDirectory(staged, LinkOption.NOFOLLOW_LINKS) && !Files.isDirectory(target, LinkOption.NOFOLLOW_LINKS))) {
+            // a file or link replacing a file or link (or nothing) needs a single rename which atomically replaces the target
+            rename(staged, target);
+            if (linkedTree != null) {
+                deleteInBackground(linkedTree);
+            }
+            return;
+        }
+        // directories cannot be replaced by a rename. move the old one out of the way first.
+        Path retired = retiredPathFor(target);
+        rename(target, retired);
+        try {
+            rename(staged, target);
+        } catch (IOException e) {
+            rename(retired, target);
+            throw e;
+        }
+        deleteInBackground(retired);
+    }
+
+    /**
+     * @return the tree {@code link} points to or null if it is not a link to
+     * a tree
+     */
+    private Path linkedTree(Path link) throws IOException {
+        if (!Files.isSymbolicLink(link)) {
+            return null;
+        }
+        Path target = link.resolveSibling(Files.readSymbolicLink(link)).normalize();
+        return isTree(target) ? target : null;
+    }
+
+    private void unlock(VersionsLock versionsLock) {
+        try {
+            versionsLock.close();
+        } catch (IOException e) {
+            log.warn("Failed to release lock on installed driver versions", e);
+        }
+    }
+
+    private void deleteInBackground(Path replaced) {
+        cleanupExecutor.execute(() -> {
+            try {
+                forceDelete(replaced);
+            } catch (IOException e) {
+                log.warn("Failed to delete replaced driver " + quote(replaced), e);
+            }
+        });
+    }
+
+    private static void rename(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static Path stagingPathFor(Path target) {
+        return siblingPath(target, "staging");
+    }
+
+    private static Path retiredPathFor(Path target) {
+        return siblingPath(target, "retired");
+    }
+
+    private static Path siblingPath(Path target, String purpose) {
+        return target.resolveSibling("." + target.getFileName() + "." + purpose + "-" + UUID.randomUUID());
+    }
+
+    /**
+     * deletes {@code path}. a symbolic link is deleted, not its target.
+     */
+    private static void forceDelete(Path path) throws IOException {
+        if (Files.isSymbolicLink(path)) {
+            Files.delete(path);
+        } else {
+            FileUtils.forceDelete(path.toFile());
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            if (Files.exists(path, LinkOption.NOFOLLOW_LINKS)) {
+                forceDelete(path);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to delete " + quote(path), e);
         }
     }
 }
@@ -0,0 +1,220 @@
+package com.github.webdriverextensions;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.RequiredArgsConstructor;
+import org.apache.maven.plugin.logging.Log;
+
+import static com.github.webdriverextensions.Utils.quote;
+
+/**
+ * Lists every file of an installed driver with its size, modification time
+ * and SHA-256 in {@code <id>.manifest} next to the version file, so that a
+ * damaged installation (e.g. truncated when the disk was full) is detected.
+ * <p>
+ * Verifying compares the size and the modification time first. Only the
+ * files whose modification time changed are hashed, on several threads.
+ */
+class DriverManifest {
+
+    private final Log log;
+    private final Path installationDirectory;
+    private final int parallelism;
+
+    DriverManifest(Log log, Path installationDirectory) {
+        this(log, installationDirectory, Runtime.getRuntime().availableProcessors());
+    }
+
+    DriverManifest(Log log, Path installationDirectory, int parallelism) {
+        this.log = log;
+        this.installationDirectory = installationDirectory;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @param installed the installed driver file or directory
+     */
+    void write(Driver driver, Path installed) throws IOException {
+        List<Path> files = new ArrayList<>();
+        Files.walkFileTree(installed, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile()) {
+                    files.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        List<String> hashes = hashAll(files);
+        List<ManifestFile> manifestFiles = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            BasicFileAttributes attributes = Files.readAttributes(files.get(i), BasicFileAttributes.class);
+            manifestFiles.add(new ManifestFile(installationDirectory.relativize(files.get(i)).toString(),
+                    attributes.size(), attributes.lastModifiedTime().toMillis(), hashes.get(i)));
+        }
+        write(getManifestFile(driver), new Manifest(manifestFiles));
+    }
+
+    void delete(Driver driver) throws IOException {
+        Files.deleteIfExists(getManifestFile(driver));
+    }
+
+    /**
+     * @return if a manifest of the driver has been written
+     */
+    boolean exists(Driver driver) {
+        return Files.isRegularFile(getManifestFile(driver));
+    }
+
+    /**
+     * @return if every file listed in the manifest of the driver is unchanged.
+     * false if there is no manifest.
+     */
+    boolean isIntact(Driver driver) {
+        Path manifestFile = getManifestFile(driver);
+        if (!Files.isRegularFile(manifestFile)) {
+            log.info("  No manifest to verify installed driver " + quote(driver.getId()) + " found");
+            return false;
+        }
+        try {
+            Manifest manifest;
+            try (Reader reader = Files.newBufferedReader(manifestFile, StandardCharsets.UTF_8)) {
+                manifest = new Gson().fromJson(reader, Manifest.class);
+            }
+            if (manifest == null || manifest.files == null || manifest.files.isEmpty()) {
+                return false;
+            }
+            List<ManifestFile> filesToHash = new ArrayList<>();
+            List<Long> lastModifiedTimes = new ArrayList<>();
+            for (ManifestFile file : manifest.files) {
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(installationDirectory.resolve(file.path), BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                } catch (NoSuchFileException e) {
+                    log.info("  Installed file " + quote(file.path) + " is missing");
+                    return false;
+                }
+                if (!attributes.isRegularFile() || attributes.size() != file.size) {
+                    log.info("  Installed file " + quote(file.path) + " has been changed");
+                    return false;
+                }
+                if (attributes.lastModifiedTime().toMillis() != file.lastModified) {
+                    filesToHash.add(file);
+                    lastModifiedTimes.add(attributes.lastModifiedTime().toMillis());
+                }
+            }
+            if (filesToHash.isEmpty()) {
+                return true;
+            }
+            List<Path> paths = new ArrayList<>();
+            filesToHash.forEach(file -> paths.add(installationDirectory.resolve(file.path)));
+            List<String> hashes = hashAll(paths);
+            List<ManifestFile> updatedFiles = new ArrayList<>(manifest.files);
+            for (int i = 0; i < filesToHash.size(); i++) {
+                ManifestFile file = filesToHash.get(i);
+                if (!file.sha256.equals(hashes.get(i))) {
+                    log.info("  Installed file " + quote(file.path) + " has been changed");
+                    return false;
+                }
+                updatedFiles.set(updatedFiles.indexOf(file), new ManifestFile(file.path, file.size, lastModifiedTimes.get(i), file.sha256));
+            }
+            // the content is unchanged, next time the modification times are enough
+            write(manifestFile, new Manifest(updatedFiles));
+            return true;
+        } catch (IOException | JsonParseException e) {
+            log.warn("Failed to verify installed driver " + quote(driver.getId()), e);
+            return false;
+        }
+    }
+
+    private Path getManifestFile(Driver driver) {
+        return installationDirectory.resolve(driver.getId() + ".manifest");
+    }
+
+    private List<String> hashAll(List<Path> files) throws IOException {
+        if (parallelism <= 1 || files.size() <= 1) {
+            List<String> hashes = new ArrayList<>();
+            for (Path file : files) {
+                hashes.add(sha256(file));
+            }
+            return hashes;
+        }
+        List<Callable<String>> tasks = new ArrayList<>();
+        for (Path file : files) {
+            tasks.add(() -> sha256(file));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, files.size()), runnable -> {
+            Thread thread = new Thread(runnable, "webdriverextensions-verify");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<String> hashes = new ArrayList<>();
+            for (Future<String> hash : executor.invokeAll(tasks)) {
+                hashes.add(hash.get());
+            }
+            return hashes;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while hashing installed files", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Failed to hash installed files", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest = Checksums.sha256();
+        Checksums.updateMapped(digest, file);
+        return Checksums.toHex(digest.digest());
+    }
+
+    private static void write(Path manifestFile, Manifest manifest) throws IOException {
+        // replaced by a rename, so that a manifest is never read half written
+        Path incompleteManifestFile = manifestFile.resolveSibling("." + manifestFile.getFileName() + ".incomplete");
+        try (Writer writer = Files.newBufferedWriter(incompleteManifestFile, StandardCharsets.UTF_8)) {
+            new Gson().toJson(manifest, writer);
+        }
+        Files.move(incompleteManifestFile, manifestFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @RequiredArgsConstructor
+    private static class Manifest {
+        private final List<ManifestFile> files;
+    }
+
+    @RequiredArgsConstructor
+    private static class ManifestFile {
+        /**
+         * relative to the installation directory
+         */
+        private final String path;
+        private final long size;
+        private final long lastModified;
+        private final String sha256;
+    }
+}
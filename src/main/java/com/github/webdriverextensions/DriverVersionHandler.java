@@ -31,13 +31,21 @@ class DriverVersionHandler {
     }
 
     boolean isSameVersion(Driver driver) throws MojoExecutionException {
+        return driver.equals(readVersionFile(driver));
+    }
+
+    /**
+     * @return the installed driver as saved by {@link #writeVersionFile(Driver)}
+     * or null if there is no version file
+     */
+    Driver readVersionFile(Driver driver) throws MojoExecutionException {
         try {
             Path versionFile = getVersionFile(driver);
             if (!versionFile.toFile().isFile() || !versionFile.toFile().canRead()) {
-                return false;
+                return null;
             }
             String savedVersion = Files.lines(versionFile).collect(Collectors.joining());
-            return driver.equals(Driver.fromJson(savedVersion));
+            return Driver.fromJson(savedVersion);
         } catch (IOException e) {
             throw new InstallDriversMojoExecutionException("Failed to compare installed driver version with the driver version to install", driver, e);
         }
@@ -0,0 +1,185 @@
+package com.github.webdriverextensions;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.FileUtils;
+
+import static com.github.webdriverextensions.Utils.quote;
+
+/**
+ * Keeps extracted drivers so that an archive that has been extracted before
+ * does not need to be extracted again.
+ * <p>
+ * Entries are keyed by the SHA-256 of the archive content and the
+ * {@code fileMatchInside} pattern and count. Each entry consists of the extracted
+ * {@code tree} and a {@code manifest.json} listing every file with its size.
+ * An entry becomes visible by a single rename once it is complete. Entries
+ * that do not match their manifest anymore are discarded. The least recently
+ * used entries are evicted once there are more than {@code maxEntries}.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+class ExtractionCache {
+
+    private static final String TREE = "tree";
+    private static final String MANIFEST = "manifest.json";
+
+    private final Log log;
+    private final Path cacheDirectory;
+    private final int maxEntries;
+
+    static String keyFor(Path archive, String fileMatchInside, Integer fileMatchInsideCount) throws IOException {
+        MessageDigest digest = Checksums.sha256();
+        Checksums.update(digest, archive);
+        Checksums.update(digest, fileMatchInside != null ? fileMatchInside : "");
+        Checksums.update(digest, fileMatchInsideCount != null ? "\0" + fileMatchInsideCount : "");
+        return Checksums.toHex(digest.digest());
+    }
+
+    /**
+     * @return the extracted tree of the entry with the given {@code key} if it
+     * exists and passes the integrity check
+     */
+    Optional<Path> lookup(String key) {
+        Path entry = cacheDirectory.resolve(key);
+        if (!Files.isDirectory(entry)) {
+            return Optional.empty();
+        }
+        if (!isIntact(entry)) {
+            log.warn("  Discarding corrupted cache entry " + quote(entry));
+            delete(entry);
+            return Optional.empty();
+        }
+        try {
+            Files.setLastModifiedTime(entry.resolve(MANIFEST), FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            log.debug("Could not update last usage of cache entry " + quote(entry), e);
+        }
+        return Optional.of(entry.resolve(TREE));
+    }
+
+    /**
+     * moves the {@code extractedTree} into the cache.
+     *
+     * @return the location of the extracted tree inside the cache
+     */
+    Path store(String key, Path extractedTree) throws IOException {
+        Files.createDirectories(cacheDirectory);
+        Path entry = cacheDirectory.resolve(key);
+        Path incompleteEntry = cacheDirectory.resolve("." + key + "-" + UUID.randomUUID());
+        try {
+            Files.createDirectory(incompleteEntry);
+            Files.move(extractedTree, incompleteEntry.resolve(TREE));
+            writeManifest(incompleteEntry);
+            try {
+                Files.move(incompleteEntry, entry, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                if (!Files.isDirectory(entry)) {
+                    throw e;
+                }
+                // stored concurrently by another build, just use that one
+            }
+        } finally {
+            if (Files.exists(incompleteEntry)) {
+                delete(incompleteEntry);
+            }
+        }
+        evict();
+        return entry.resolve(TREE);
+    }
+
+    /**
+     * deletes the least recently used entries until there are no more than
+     * {@code maxEntries} left
+     */
+    void evict() {
+        File[] entries = cacheDirectory.toFile().listFiles(file -> file.isDirectory() && !file.getName().startsWith("."));
+        if (entries == null || entries.length <= maxEntries) {
+            return;
+        }
+        Stream.of(entries)
+                .sorted(Comparator.comparingLong((File entry) -> new File(entry, MANIFEST).lastModified()).reversed())
+                .skip(maxEntries)
+                .forEach(entry -> {
+                    log.info("  Evicting " + quote(entry.toPath()) + " from cache");
+                    delete(entry.toPath());
+                });
+    }
+
+    private void writeManifest(Path entry) throws IOException {
+        Path tree = entry.resolve(TREE);
+        List<ManifestFile> files = new ArrayList<>();
+        Files.walkFileTree(tree, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                files.add(new ManifestFile(tree.relativize(file).toString(), attrs.size()));
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        try (Writer writer = Files.newBufferedWriter(entry.resolve(MANIFEST), StandardCharsets.UTF_8)) {
+            new Gson().toJson(new Manifest(files), writer);
+        }
+    }
+
+    private boolean isIntact(Path entry) {
+        Path tree = entry.resolve(TREE);
+        try (Reader reader = Files.newBufferedReader(entry.resolve(MANIFEST), StandardCharsets.UTF_8)) {
+            Manifest manifest = new Gson().fromJson(reader, Manifest.class);
+            if (manifest == null || manifest.files == null) {
+                return false;
+            }
+            for (ManifestFile file : manifest.files) {
+                Path path = tree.resolve(file.path);
+                if (!Files.isRegularFile(path) || Files.size(path) != file.size) {
+                    return false;
+                }
+            }
+            try (Stream<Path> walk = Files.walk(tree)) {
+                return walk.filter(Files::isRegularFile).count() == manifest.files.size();
+            }
+        } catch (IOException | JsonParseException e) {
+            log.debug("Failed to check cache entry " + quote(entry), e);
+            return false;
+        }
+    }
+
+    private void delete(Path entry) {
+        try {
+            FileUtils.deleteDirectory(entry.toFile());
+        } catch (IOException e) {
+            log.warn("Failed to delete cache entry " + quote(entry), e);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class Manifest {
+        private final List<ManifestFile> files;
+    }
+
+    @RequiredArgsConstructor
+    private static class ManifestFile {
+        private final String path;
+        private final long size;
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.webdriverextensions;
+
+import java.io.File;
+import java.io.IOException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import static com.github.webdriverextensions.Utils.quote;
+
+/**
+ * Delete driver versions that are no longer used, metadata of drivers that
+ * are not installed anymore and leftovers of interrupted installations from
+ * the installation directory. Safe to run while drivers are installed
+ * concurrently.
+ *
+ * @since 4.1.0
+ */
+@Mojo(name = "gc-drivers", requiresProject = false)
+public class GcDriversMojo extends AbstractMojo {
+
+    /**
+     * The path to the directory where the drivers are installed.
+     */
+    @Parameter(defaultValue = "${basedir}/drivers", property = "webdriverextensions.installDirectory")
+    File installationDirectory;
+
+    /**
+     * The number of versions of a driver to keep, including the current one
+     * (see <code>keepInstalledVersions</code> of the
+     * <code>install-drivers</code> goal). The most recently used versions are
+     * kept.
+     */
+    @Parameter(defaultValue = "3", property = "webdriverextensions.gc.keepVersions")
+    int gcKeepVersions;
+
+    /**
+     * Versions of a driver used within this number of days are kept as well.
+     */
+    @Parameter(defaultValue = "0", property = "webdriverextensions.gc.keepDays")
+    int gcKeepDays;
+
+    /**
+     * Skips the garbage collection.
+     */
+    @Parameter(defaultValue = "false", property = "webdriverextensions.skip")
+    boolean skip;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (skip) {
+            getLog().info("Skipping gc-drivers goal execution");
+            return;
+        }
+        if (!installationDirectory.isDirectory()) {
+            getLog().info("No installation directory " + quote(installationDirectory.toPath()) + " found");
+            return;
+        }
+        try {
+            int deleted = new DriverGarbageCollector(getLog(), installationDirectory.toPath(), gcKeepVersions, gcKeepDays).collect();
+            getLog().info("Deleted " + deleted + " stale entries from installation directory " + quote(installationDirectory.toPath()));
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to delete stale drivers from " + quote(installationDirectory.toPath()), e);
+        }
+    }
+}
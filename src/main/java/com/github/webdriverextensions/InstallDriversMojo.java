@@ -1,5 +1,6 @@
 package com.github.webdriverextensions;
 
+import com.github.webdriverextensions.InstallationMetrics.Phase;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
@@ -215,6 +216,31 @@ public class InstallDriversMojo extends AbstractMojo {
     @Parameter(defaultValue = "false", property = "webdriverextensions.download.keepFiles")
     boolean keepDownloadedWebdrivers;
 
+    /**
+     * Keep extracted drivers as local cache, so that an archive that has been
+     * extracted before is not extracted again. Cached drivers are identified
+     * by the content of the downloaded archive and
+     * <code>fileMatchInside</code>.<br/>
+     * <b>Requires <code>keepDownloadedWebdrivers</code> to be
+     * <code>true</code>.</b> Because cached files must not be moved, an
+     * <code>installMode</code> of <code>MOVE</code> is treated as
+     * <code>COPY</code>. Consider using <code>LINK</code>.
+     *
+     * @since 4.1.0
+     */
+    @Parameter(defaultValue = "false", property = "webdriverextensions.extract.keepFiles")
+    boolean keepExtractedWebdrivers;
+
+    /**
+     * Maximum number of extracted drivers kept as local cache (see
+     * <code>keepExtractedWebdrivers</code>). The least recently used ones are
+     * deleted first.
+     *
+     * @since 4.1.0
+     */
+    @Parameter(defaultValue = "10", property = "webdriverextensions.extract.cacheMaxEntries")
+    int extractCacheMaxEntries = 10;
+
     /**
      * The working directory where downloaded drivers will be saved until they
      * are moved to <code>installationDirectory</code>.<br/>
@@ -246,10 +272,138 @@ public class InstallDriversMojo extends AbstractMojo {
      */
     @Parameter(defaultValue = "false", property = "webdriverextensions.setWebdriverPath")
     boolean setWebdriverPath;
+
+    /**
+     * How the extracted files are transferred into
+     * <code>installationDirectory</code>:
+     * <ul>
+     * <li><code>MOVE</code> moves the extracted files</li>
+     * <li><code>LINK</code> creates hard links to the extracted files, which
+     * only costs a metadata operation per file. Falls back to copying if the
+     * file system does not support hard links or if
+     * <code>pluginWorkingDirectory</code> is located on another file
+     * system.</li>
+     * <li><code>COPY</code> copies the extracted files</li>
+     * </ul>
+     *
+     * @since 4.1.0
+     */
+    @Parameter(defaultValue = "MOVE", property = "webdriverextensions.installMode")
+    InstallMode installMode = InstallMode.MOVE;
+
+    /**
+     * Extract the drivers straight into hidden directories named
+     * <code>.&lt;driver id&gt;.extract-&lt;random UUID&gt;</code> in the
+     * <code>installationDirectory</code> instead of the
+     * <code>pluginWorkingDirectory</code>, so that installing them only takes
+     * renames. Only applies to an <code>installMode</code> of
+     * <code>MOVE</code> without <code>keepExtractedWebdrivers</code>.<br/>
+     * The directory of a driver that fails to install is deleted at the end
+     * of the execution. If the build is interrupted while extracting, it is
+     * left behind until it is deleted by the <code>gc-drivers</code> goal (or
+     * <code>gcAfterInstall</code>).
+     *
+     * @since 4.1.0
+     */
+    @Parameter(defaultValue = "false", property = "webdriverextensions.extract.inPlace")
+    boolean extractIntoInstallationDirectory;
+
+    /**
+     * Verify that the files of an installed driver are intact before skipping
+     * its installation. A manifest of the installed files is written when a
+     * driver is installed. Only the files whose modification time differs
+     * from the manifest are hashed. Damaged drivers are installed again.
+     *
+     * @since 4.1.0
+     */
+    @Parameter(defaultValue = "false", property = "webdriverextensions.verifyInstalledDrivers")
+    boolean verifyInstalledDrivers;
+
+    /**
+     * Keep previously installed versions of a driver side by side with the
+     * current one, so that switching back to one of them does not require to
+     * download and install it again. Each version is installed into
+     * <code>.&lt;driver id&gt;.versions/&lt;version&gt;</code> in the
+     * <code>installationDirectory</code> and the installed driver becomes a
+     * symbolic link to the current version, which is replaced atomically.
+     * Ignored if symbolic links are not supported.
+     *
+     * @since 4.1.0
+     */
+    @Parameter(defaultValue = "false", property = "webdriverextensions.keepInstalledVersions")
+    boolean keepInstalledVersions;
+
+    /**
+     * Delete stale drivers from the <code>installationDirectory</code> after
+     * installing, like the <code>gc-drivers</code> goal does.
+     *
+     * @since 4.1.0
+     */
+    @Parameter(defaultValue = "false", property = "webdriverextensions.gc.afterInstall")
+    boolean gcAfterInstall;
+
+    /**
+     * The number of versions of a driver to keep, including the current one,
+     * if <code>gcAfterInstall</code> is <code>true</code>. The most recently
+     * used versions are kept.
+     *
+     * @since 4.1.0
+     */
+    @Parameter(defaultValue = "3", property = "webdriverextensions.gc.keepVersions")
+    int gcKeepVersions;
+
+    /**
+     * Versions of a driver used within this number of days are kept as well if
+     * <code>gcAfterInstall</code> is <code>true</code>.
+     *
+     * @since 4.1.0
+     */
+    @Parameter(defaultValue = "0", property = "webdriverextensions.gc.keepDays")
+    int gcKeepDays;
+
+    /**
+     * Skip the installation if neither its inputs nor the
+     * <code>installationDirectory</code> changed since the last installation.
+     * The inputs are the configured drivers, the content of the repository,
+     * the running platform and the settings of the installation. A fingerprint
+     * of the inputs and the installed files is saved as
+     * <code>.install-drivers.fingerprint</code> in the
+     * <code>installationDirectory</code>. It does not depend on modification
+     * times, so that an <code>installationDirectory</code> restored from a
+     * build cache is recognized as unchanged. The repository is loaded
+     * nevertheless.
+     *
+     * @since 4.1.0
+     */
+    @Parameter(defaultValue = "false", property = "webdriverextensions.skipUnchanged")
+    boolean skipUnchanged;
+
+    /**
+     * Report the wall-clock and cpu time of each phase of the installation
+     * (repository load, resolution, install check, download, extract and
+     * install), in total and per driver, together with the number of
+     * downloaded bytes, cache hits and misses and retried requests. The report
+     * is logged as a table and written as JSON to
+     * <code>metricsReportFile</code>.
+     *
+     * @since 4.1.0
+     */
+    @Parameter(defaultValue = "false", property = "webdriverextensions.metrics.report")
+    boolean reportMetrics;
+
+    /**
+     * The file the metrics are written to if <code>reportMetrics</code> is
+     * <code>true</code>.
+     *
+     * @since 4.1.0
+     */
+    @Parameter(defaultValue = "${project.build.directory}/webdriverextensions-metrics.json", property = "webdriverextensions.metrics.reportFile")
+    File metricsReportFile;
   
     Path downloadDirectory;
     Path tempDirectory;
     Repository repository;
+    InstallationMetrics metrics;
 
     public InstallDriversMojo() {
     }
@@ -290,7 +444,8 @@ public class InstallDriversMojo extends AbstractMojo {
             return;
         }
 
-        repository = Repository.load(repositoryUrl, getProxyFromSettings(settings, proxyId));
+        metrics = new InstallationMetrics();
+        repository = metrics.time(Phase.REPOSITORY_LOAD, null, () -> Repository.load(repositoryUrl, getProxyFromSettings(settings, proxyId)));
         getLog().info("Installation directory " + quote(installationDirectory.toPath()));
         if (drivers.isEmpty()) {
             getLog().info("Installing latest drivers for current platform");
@@ -304,42 +459,73 @@ public class InstallDriversMojo extends AbstractMojo {
             getLog().warn("keepDownloadedWebdrivers is true but pluginWorkingDirectory is not set! Please configure pluginWorkingDirectory as well.");
             keepDownloadedWebdrivers = false;
         }
+        if (keepExtractedWebdrivers && !keepDownloadedWebdrivers) {
+            getLog().warn("keepExtractedWebdrivers is true but keepDownloadedWebdrivers is not! Please configure keepDownloadedWebdrivers as well.");
+            keepExtractedWebdrivers = false;
+        }
+        InstallationFingerprint fingerprint = null;
+        if (skipUnchanged) {
+            fingerprint = new InstallationFingerprint(installationDirectory.toPath(), InstallationFingerprint.describeInputs(drivers, repository, describeSettings()));
+            if (isUnchanged(fingerprint)) {
+                getLog().info("Skipping installation since neither the drivers nor the installation directory changed");
+                if (setWebdriverPath) {
+                    setDriverPathProperties();
+                }
+                metrics.skipped();
+                reportMetrics();
+                return;
+            }
+        }
         setupDirectories();
+        if (keepDownloadedWebdrivers) {
+            saveRepositorySnapshot();
+        }
         performInstallation();
+        if (gcAfterInstall) {
+            collectGarbage();
+        }
+        if (fingerprint != null) {
+            saveFingerprint(fingerprint);
+        }
         if (keepDownloadedWebdrivers) {
             cleanupTempDirectory();
         } else {
             cleanupWorkingDirectory();
         }
+        reportMetrics();
     }
 
     private void performInstallation() throws MojoExecutionException {
-        final DriverExtractor driverExtractor = createExtractor();
-        final DriverInstaller driverInstaller = createInstaller();
-
-        try (final DriverDownloader driverDownloader = createDownloader()) {
+        try (final DriverDownloader driverDownloader = createDownloader(); final DriverInstaller driverInstaller = createInstaller()) {
+            final DriverExtractor driverExtractor = createExtractor(driverInstaller);
+            driverDownloader.setMetrics(metrics);
             driverDownloader.open();
             drivers.stream()
-                    .map(Unchecked.function(repository::enrichDriver))
+                    .map(Unchecked.function(driver -> metrics.time(Phase.RESOLUTION, null, () -> repository.enrichDriver(driver))))
                     .filter(Objects::nonNull)
+                    // if the version of the driver is kept installed, just switch to it
+                    .filter(Unchecked.predicate(driver -> !metrics.time(Phase.INSTALL_CHECK, driver, () -> driverInstaller.switchToKeptVersion(driver))))
                     // if driver is already installed, just set webdriver property
                     .peek(driverInstaller::setDriverPathPropertyIfInstalled)
                     // proceed with drivers that need installation
-                    .filter(driverInstaller::needInstallation)
+                    .filter(driver -> metrics.time(Phase.INSTALL_CHECK, driver, () -> driverInstaller.needInstallation(driver)))
                     .peek(driver -> getLog().info(driver.getId() + " version " + driver.getVersion()))
                     // download
                     .map(Unchecked.function(driver -> {
-                        Path downloadLocation = driverDownloader.downloadFile(driver, downloadDirectory);
+                        Path downloadLocation = metrics.time(Phase.DOWNLOAD, driver, () -> driverDownloader.downloadFile(driver, downloadDirectory));
                         return Tuple.tuple(driver, downloadLocation);
                     }))
                     // extract
                     .map(Unchecked.function(t -> {
-                        Path extractLocation = driverExtractor.extractDriver(t.v1, t.v2);
+                        Path extractLocation = metrics.time(Phase.EXTRACT, t.v1, () -> driverExtractor.extractDriver(t.v1, t.v2));
                         return Tuple.tuple(t.v1, extractLocation);
                     }))
                     // and finally install the driver
                     .forEach(Unchecked.consumer(t -> {
-                        driverInstaller.install(t.v1, t.v2);
+                        metrics.time(Phase.INSTALL, t.v1, () -> {
+                            driverInstaller.install(t.v1, t.v2);
+                            return null;
+                        });
                     }));
         } catch (IOException ex) {
             // ignored. close operation of downloader
@@ -363,12 +549,102 @@ public class InstallDriversMojo extends AbstractMojo {
         }
     }
 
-    private DriverExtractor createExtractor() {
-        return new DriverExtractor(getLog(), tempDirectory);
+    private void reportMetrics() {
+        if (!reportMetrics) {
+            return;
+        }
+        metrics.log(getLog());
+        try {
+            metrics.write(metricsReportFile.toPath());
+            getLog().info("Metrics written to " + quote(metricsReportFile.toPath()));
+        } catch (IOException e) {
+            getLog().warn("Failed to write metrics to " + quote(metricsReportFile.toPath()), e);
+        }
+    }
+
+    /**
+     * describes every setting that changes what an execution does to the
+     * installation directory, so that changing one of them is not skipped as
+     * unchanged.
+     */
+    String describeSettings() {
+        return String.format("installMode=%s, extractIntoInstallationDirectory=%s, verifyInstalledDrivers=%s, keepInstalledVersions=%s, "
+                + "gcAfterInstall=%s, gcKeepVersions=%s, gcKeepDays=%s",
+                installMode, extractIntoInstallationDirectory, verifyInstalledDrivers, keepInstalledVersions,
+                gcAfterInstall, gcKeepVersions, gcKeepDays);
+    }
+
+    private boolean isUnchanged(InstallationFingerprint fingerprint) {
+        try {
+            return fingerprint.isUnchanged();
+        } catch (IOException e) {
+            getLog().warn("Failed to compare fingerprint of installation directory " + quote(installationDirectory.toPath()), e);
+            return false;
+        }
+    }
+
+    private void saveFingerprint(InstallationFingerprint fingerprint) {
+        try {
+            fingerprint.save();
+        } catch (IOException e) {
+            // the next execution installs the drivers again
+            getLog().warn("Failed to save fingerprint of installation directory " + quote(installationDirectory.toPath()), e);
+        }
+    }
+
+    private void setDriverPathProperties() throws MojoExecutionException {
+        try (DriverInstaller driverInstaller = createInstaller()) {
+            for (Driver driver : drivers) {
+                Driver enrichedDriver = repository.enrichDriver(driver);
+                if (enrichedDriver != null) {
+                    driverInstaller.setDriverPathPropertyIfInstalled(enrichedDriver);
+                }
+            }
+        }
+    }
+
+    /**
+     * saves the repository next to the kept downloads for the
+     * <code>verify-drivers</code> goal, which must not access the network
+     */
+    private void saveRepositorySnapshot() {
+        Path snapshot = pluginWorkingDirectory.toPath().resolve(Repository.SNAPSHOT_FILE_NAME);
+        try {
+            repository.writeSnapshot(snapshot);
+        } catch (IOException e) {
+            // only needed for verifying
+            getLog().warn("Failed to save repository snapshot to " + quote(snapshot), e);
+        }
+    }
+
+    private void collectGarbage() {
+        try {
+            int deleted = new DriverGarbageCollector(getLog(), installationDirectory.toPath(), gcKeepVersions, gcKeepDays).collect();
+            getLog().info("Deleted " + deleted + " stale entries from installation directory");
+        } catch (IOException e) {
+            // the drivers are installed nevertheless
+            getLog().warn("Failed to delete stale drivers from " + quote(installationDirectory.toPath()), e);
+        }
+    }
+
+    private DriverExtractor createExtractor(DriverInstaller driverInstaller) {
+        DriverExtractor driverExtractor = new DriverExtractor(getLog(), tempDirectory);
+        driverExtractor.setMetrics(metrics);
+        if (keepExtractedWebdrivers) {
+            driverExtractor.setCache(new ExtractionCache(getLog(), pluginWorkingDirectory.toPath().resolve("extracted"), extractCacheMaxEntries));
+        } else if (extractIntoInstallationDirectory && installMode == InstallMode.MOVE) {
+            // installing does not need to move any file
+            driverExtractor.setExtractLocationFactory(driverInstaller::createExtractLocation);
+        }
+        return driverExtractor;
     }
     
     private DriverInstaller createInstaller() {
         DriverInstaller driverInstaller = new DriverInstaller(getLog(), installationDirectory.toPath());
+        // cached extractions must be left untouched
+        driverInstaller.setInstallMode(keepExtractedWebdrivers && installMode == InstallMode.MOVE ? InstallMode.COPY : installMode);
+        driverInstaller.setVerifyInstalledDrivers(verifyInstalledDrivers);
+        driverInstaller.setKeepInstalledVersions(keepInstalledVersions);
         if (setWebdriverPath) {
             driverInstaller.setDriverPathProperyTarget(session.getUserProperties());
         }
@@ -0,0 +1,27 @@
+package com.github.webdriverextensions;
+
+/**
+ * How the extracted files of a driver are transferred into the installation
+ * directory.
+ *
+ * @since 4.1.0
+ */
+public enum InstallMode {
+    /**
+     * move the extracted files. they are copied if they are located on another
+     * file system than the installation directory, unless the drivers are
+     * extracted into the installation directory.
+     */
+    MOVE,
+    /**
+     * create hard links to the extracted files, so that installing a file only
+     * costs a metadata operation. the extracted files are left untouched. if
+     * the file system does not support hard links (or the extracted files are
+     * located on another file system) the files are copied instead.
+     */
+    LINK,
+    /**
+     * copy the extracted files. the extracted files are left untouched.
+     */
+    COPY
+}
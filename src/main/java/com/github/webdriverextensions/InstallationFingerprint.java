@@ -0,0 +1,118 @@
+package com.github.webdriverextensions;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The fingerprint of the effective inputs of an installation together with
+ * the installation directory it resulted in. If the fingerprint saved by the
+ * last installation is still the same, installing again would not change
+ * anything.
+ * <p>
+ * Of the installed files only the paths, types, sizes and executable flags are
+ * taken into account. Modification times are left out, so that an
+ * installation directory restored from a build cache has the same fingerprint.
+ */
+class InstallationFingerprint {
+
+    static final String FILE_NAME = ".install-drivers.fingerprint";
+
+    private final Path installationDirectory;
+    private final String inputs;
+
+    /**
+     * @param inputs a description of the inputs of the installation, see
+     * {@link #describeInputs(List, Repository, String)}
+     */
+    InstallationFingerprint(Path installationDirectory, String inputs) {
+        this.installationDirectory = installationDirectory;
+        this.inputs = inputs;
+    }
+
+    /**
+     * describes the inputs of an installation. the drivers are described as
+     * configured, since they are resolved from the repository depending on
+     * the running platform, which are described as well.
+     *
+     * @param settings the settings that change how the drivers are installed
+     */
+    static String describeInputs(List<Driver> drivers, Repository repository, String settings) {
+        StringBuilder description = new StringBuilder()
+                .append("platform=").append(Utils.detectPlatform()).append('\n')
+                .append("arch=").append(Utils.detectArch()).append('\n')
+                .append("bit=").append(Utils.detectBits()).append('\n')
+                .append("windows10=").append(Utils.isWindows10()).append('\n')
+                .append("repository=").append(repository.getDigest()).append('\n')
+                .append("settings=").append(settings).append('\n');
+        drivers.forEach(driver -> description.append("driver=").append(driver).append('\n'));
+        return description.toString();
+    }
+
+    /**
+     * @return if the saved fingerprint matches the inputs and the current
+     * content of the installation directory
+     */
+    boolean isUnchanged() throws IOException {
+        Path file = installationDirectory.resolve(FILE_NAME);
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim().equals(compute());
+    }
+
+    /**
+     * saves the fingerprint of the inputs and the current content of the
+     * installation directory
+     */
+    void save() throws IOException {
+        Path file = installationDirectory.resolve(FILE_NAME);
+        // replaced by a rename, so that a fingerprint is never read half written
+        Path incompleteFile = file.resolveSibling(FILE_NAME + ".incomplete");
+        Files.write(incompleteFile, (compute() + "\n").getBytes(StandardCharsets.UTF_8));
+        Files.move(incompleteFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    String compute() throws IOException {
+        MessageDigest digest = Checksums.sha256();
+        Checksums.update(digest, inputs);
+        if (Files.isDirectory(installationDirectory)) {
+            List<Path> entries;
+            try (Stream<Path> walk = Files.walk(installationDirectory)) {
+                entries = walk
+                        .filter(path -> !path.equals(installationDirectory))
+                        .filter(path -> !installationDirectory.relativize(path).toString().startsWith(FILE_NAME))
+                        .sorted((first, second) -> relativePath(first).compareTo(relativePath(second)))
+                        .collect(Collectors.toList());
+            }
+            for (Path entry : entries) {
+                Checksums.update(digest, describe(entry) + "\n");
+            }
+        }
+        return Checksums.toHex(digest.digest());
+    }
+
+    private String describe(Path entry) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        if (attributes.isSymbolicLink()) {
+            return "link " + relativePath(entry) + " -> " + Files.readSymbolicLink(entry).toString().replace('\\', '/');
+        } else if (attributes.isDirectory()) {
+            return "directory " + relativePath(entry);
+        } else {
+            return "file " + relativePath(entry) + " " + attributes.size() + (Files.isExecutable(entry) ? " executable" : "");
+        }
+    }
+
+    private String relativePath(Path entry) {
+        // the same on every platform
+        return installationDirectory.relativize(entry).toString().replace('\\', '/');
+    }
+}
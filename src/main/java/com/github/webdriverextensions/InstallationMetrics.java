@@ -0,0 +1,240 @@
+package com.github.webdriverextensions;
+
+import com.google.gson.GsonBuilder;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Collects the wall-clock and cpu time of the phases of an installation, in
+ * total and per driver, as well as the number of downloaded bytes, cache hits
+ * and misses and retried requests. The cpu time is the one of the thread
+ * executing a phase, without the threads it hands work to. Thread safe.
+ */
+class InstallationMetrics {
+
+    enum Phase {
+        REPOSITORY_LOAD("repositoryLoad", "repository load"),
+        RESOLUTION("resolution", "resolution"),
+        INSTALL_CHECK("installCheck", "install check"),
+        DOWNLOAD("download", "download"),
+        EXTRACT("extract", "extract"),
+        INSTALL("install", "install");
+
+        private final String key;
+        private final String label;
+
+        Phase(String key, String label) {
+            this.key = key;
+            this.label = label;
+        }
+    }
+
+    @FunctionalInterface
+    interface Action<T, E extends Exception> {
+
+        T run() throws E;
+    }
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final long start = System.nanoTime();
+    private final Map<Phase, Timing> phases = new EnumMap<>(Phase.class);
+    private final Map<String, DriverMetrics> drivers = new LinkedHashMap<>();
+    private boolean skipped;
+    private long downloadedBytes;
+    private int downloadCacheHits;
+    private int downloadCacheMisses;
+    private int extractCacheHits;
+    private int extractCacheMisses;
+    private int retries;
+
+    /**
+     * runs {@code action} and adds its duration to {@code phase}
+     *
+     * @param driver the driver the phase is executed for. null if for none.
+     */
+    <T, E extends Exception> T time(Phase phase, Driver driver, Action<T, E> action) throws E {
+        long wallStart = System.nanoTime();
+        long cpuStart = cpuTime();
+        try {
+            return action.run();
+        } finally {
+            record(phase, driver, System.nanoTime() - wallStart, cpuTime() - cpuStart);
+        }
+    }
+
+    synchronized void skipped() {
+        skipped = true;
+    }
+
+    synchronized void downloaded(Driver driver, long bytes) {
+        downloadCacheMisses++;
+        downloadedBytes += bytes;
+        DriverMetrics metrics = driverMetrics(driver);
+        metrics.downloadCache = "miss";
+        metrics.downloadedBytes += bytes;
+    }
+
+    synchronized void downloadCacheHit(Driver driver) {
+        downloadCacheHits++;
+        driverMetrics(driver).downloadCache = "hit";
+    }
+
+    synchronized void extractCacheHit(Driver driver) {
+        extractCacheHits++;
+        driverMetrics(driver).extractCache = "hit";
+    }
+
+    synchronized void extractCacheMiss(Driver driver) {
+        extractCacheMisses++;
+        driverMetrics(driver).extractCache = "miss";
+    }
+
+    synchronized void retried() {
+        retries++;
+    }
+
+    /**
+     * writes the metrics as json
+     */
+    synchronized void write(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            new GsonBuilder().setPrettyPrinting().create().toJson(toReport(), writer);
+        }
+    }
+
+    /**
+     * logs the metrics as tables
+     */
+    synchronized void log(Log log) {
+        log.info(String.format("%-40s %12s %12s", "Phase", "Wall [ms]", "CPU [ms]"));
+        phases.forEach((phase, timing) -> log.info(String.format("%-40s %12.1f %12.1f", phase.label, millis(timing.wallTime), millis(timing.cpuTime))));
+        for (DriverMetrics driver : drivers.values()) {
+            driver.phases.forEach((phase, timing) -> log.info(String.format("%-40s %12.1f %12.1f",
+                    "  " + driver.id + " " + phase.label, millis(timing.wallTime), millis(timing.cpuTime))));
+        }
+        log.info(String.format("%-40s %12.1f", "total", millis(System.nanoTime() - start)));
+        log.info(String.format("Downloaded %d bytes, download cache %d hits / %d misses, extraction cache %d hits / %d misses, %d retries",
+                downloadedBytes, downloadCacheHits, downloadCacheMisses, extractCacheHits, extractCacheMisses, retries));
+    }
+
+    private synchronized void record(Phase phase, Driver driver, long wallTime, long cpuTime) {
+        phases.computeIfAbsent(phase, p -> new Timing()).add(wallTime, cpuTime);
+        if (driver != null) {
+            driverMetrics(driver).phases.computeIfAbsent(phase, p -> new Timing()).add(wallTime, cpuTime);
+        }
+    }
+
+    private DriverMetrics driverMetrics(Driver driver) {
+        return drivers.computeIfAbsent(driver.getId(), id -> new DriverMetrics(id, driver.getVersion()));
+    }
+
+    private Report toReport() {
+        Report report = new Report();
+        report.skipped = skipped;
+        report.wallTimeMillis = millis(System.nanoTime() - start);
+        phases.forEach((phase, timing) -> report.phases.put(phase.key, timing.toReport()));
+        for (DriverMetrics driver : drivers.values()) {
+            DriverReport driverReport = new DriverReport();
+            driverReport.id = driver.id;
+            driverReport.version = driver.version;
+            driver.phases.forEach((phase, timing) -> driverReport.phases.put(phase.key, timing.toReport()));
+            driverReport.downloadedBytes = driver.downloadedBytes;
+            driverReport.downloadCache = driver.downloadCache;
+            driverReport.extractCache = driver.extractCache;
+            report.drivers.add(driverReport);
+        }
+        report.downloadedBytes = downloadedBytes;
+        report.downloadCacheHits = downloadCacheHits;
+        report.downloadCacheMisses = downloadCacheMisses;
+        report.extractCacheHits = extractCacheHits;
+        report.extractCacheMisses = extractCacheMisses;
+        report.retries = retries;
+        return report;
+    }
+
+    private static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : 0;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    private static class Timing {
+
+        private long wallTime;
+        private long cpuTime;
+
+        void add(long wallTime, long cpuTime) {
+            this.wallTime += wallTime;
+            this.cpuTime += cpuTime;
+        }
+
+        TimingReport toReport() {
+            TimingReport report = new TimingReport();
+            report.wallTimeMillis = millis(wallTime);
+            report.cpuTimeMillis = millis(cpuTime);
+            return report;
+        }
+    }
+
+    private static class DriverMetrics {
+
+        private final String id;
+        private final String version;
+        private final Map<Phase, Timing> phases = new EnumMap<>(Phase.class);
+        private long downloadedBytes;
+        private String downloadCache;
+        private String extractCache;
+
+        DriverMetrics(String id, String version) {
+            this.id = id;
+            this.version = version;
+        }
+    }
+
+    // the json structure of the report
+
+    private static class Report {
+
+        private boolean skipped;
+        private double wallTimeMillis;
+        private final Map<String, TimingReport> phases = new LinkedHashMap<>();
+        private final List<DriverReport> drivers = new ArrayList<>();
+        private long downloadedBytes;
+        private int downloadCacheHits;
+        private int downloadCacheMisses;
+        private int extractCacheHits;
+        private int extractCacheMisses;
+        private int retries;
+    }
+
+    private static class DriverReport {
+
+        private String id;
+        private String version;
+        private final Map<String, TimingReport> phases = new LinkedHashMap<>();
+        private long downloadedBytes;
+        private String downloadCache;
+        private String extractCache;
+    }
+
+    private static class TimingReport {
+
+        private double wallTimeMillis;
+        private double cpuTimeMillis;
+    }
+}
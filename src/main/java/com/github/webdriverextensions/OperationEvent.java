@@ -0,0 +1,59 @@
+package com.github.webdriverextensions;
+
+import java.nio.file.Path;
+
+/**
+ * Records an operation of the plugin as Java Flight Recorder event, so that
+ * its work shows up in recordings of the build.
+ * <pre>
+ * OperationEvent event = OperationEvent.begin(OperationEvent.Type.DOWNLOAD).driver(driver);
+ * try {
+ *     ...
+ *     event.bytes(size).cacheStatus("miss");
+ * } finally {
+ *     event.end();
+ * }
+ * </pre> Java Flight Recorder events require Java 11, so this implementation
+ * records nothing. On Java 11 and later it is replaced by the one in
+ * <code>src/main/java11</code>, which is packaged into
+ * <code>META-INF/versions/11</code> of the multi-release jar.
+ */
+class OperationEvent {
+
+    enum Type {
+        REPOSITORY_LOAD,
+        DOWNLOAD,
+        EXTRACT,
+        INSTALL
+    }
+
+    private static final OperationEvent DISABLED = new OperationEvent();
+
+    static OperationEvent begin(Type type) {
+        return DISABLED;
+    }
+
+    OperationEvent driver(Driver driver) {
+        return this;
+    }
+
+    OperationEvent bytes(long bytes) {
+        return this;
+    }
+
+    /**
+     * sets the bytes to the size of {@code file}, which is only determined if
+     * the event is recorded
+     */
+    OperationEvent bytesOf(Path file) {
+        return this;
+    }
+
+    OperationEvent cacheStatus(String cacheStatus) {
+        return this;
+    }
+
+    void end() {
+        // nothing recorded
+    }
+}
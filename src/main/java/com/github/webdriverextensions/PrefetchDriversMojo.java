@@ -0,0 +1,223 @@
+package com.github.webdriverextensions;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.settings.Settings;
+import org.jooq.lambda.Unchecked;
+
+import static com.github.webdriverextensions.ProxyUtils.getProxyFromSettings;
+import static com.github.webdriverextensions.Utils.quote;
+
+/**
+ * Download drivers into the download cache of the
+ * <code>pluginWorkingDirectory</code> without installing them, so that
+ * subsequent executions of the <code>install-drivers</code> goal with the
+ * same <code>pluginWorkingDirectory</code> and
+ * <code>keepDownloadedWebdrivers</code> set to <code>true</code> do not need
+ * to access the network for downloading drivers. The drivers are downloaded
+ * concurrently.
+ *
+ * @since 4.1.0
+ */
+@Mojo(name = "prefetch-drivers", requiresProject = false, requiresOnline = true)
+public class PrefetchDriversMojo extends AbstractMojo {
+
+    @Parameter(defaultValue = "${settings}", readonly = true, required = true)
+    Settings settings;
+
+    /**
+     * URL to where the repository file is located (see the
+     * <code>install-drivers</code> goal).
+     */
+    @Parameter(defaultValue = "https://raw.githubusercontent.com/webdriverextensions/webdriverextensions-maven-plugin-repository/master/repository-3.0.json", property = "webdriverextensions.repoUrl")
+    URL repositoryUrl;
+
+    /**
+     * The id of the proxy to use if it is configured in settings.xml. If not
+     * provided the first active proxy in settings.xml will be used.
+     */
+    @Parameter(property = "webdriverextensions.proxyId")
+    String proxyId;
+
+    /**
+     * List of drivers to download, configured like for the
+     * <code>install-drivers</code> goal. If no drivers are provided the latest
+     * drivers for the running platform will be downloaded.
+     */
+    @Parameter
+    List<Driver> drivers = new ArrayList<>();
+
+    /**
+     * Download the latest version of the drivers for every platform, bit and
+     * architecture available in the repository instead of only the ones for
+     * the running platform. If <code>drivers</code> are provided, only their
+     * names are taken into account.
+     */
+    @Parameter(defaultValue = "false", property = "webdriverextensions.prefetch.allPlatforms")
+    boolean allPlatforms;
+
+    /**
+     * The working directory of the <code>install-drivers</code> goal, below
+     * which the drivers are downloaded. Must be set, since the downloaded
+     * drivers would be lost otherwise.
+     */
+    @Parameter(property = "webdriverextensions.workingDirectory")
+    File pluginWorkingDirectory;
+
+    /**
+     * The maximum number of drivers downloaded concurrently.
+     */
+    @Parameter(defaultValue = "4", property = "webdriverextensions.prefetch.threads")
+    int prefetchThreads;
+
+    /**
+     * Determines the timeout in seconds until arrival of a response from the
+     * download host.<br/>
+     * A timeout value of zero is interpreted as an infinite timeout.
+     */
+    @Parameter(defaultValue = "1800", property = "webdriverextensions.download.responseTimeout")
+    int downloadResponseTimeout;
+
+    /**
+     * Determines the timeout in seconds until a new connection is fully
+     * established.<br/>
+     * A timeout value of zero is interpreted as an infinite timeout.
+     */
+    @Parameter(defaultValue = "30", property = "webdriverextensions.download.connectTimeout")
+    int downloadConnectTimeout;
+
+    /**
+     * Number of retry attempts to download a driver.<br/>
+     * A value of zero means no retries.
+     */
+    @Parameter(defaultValue = "3", property = "webdriverextensions.download.maxRetries")
+    int downloadMaxRetries;
+
+    /**
+     * retry interval in seconds between subsequent retries.
+     */
+    @Parameter(defaultValue = "3", property = "webdriverextensions.download.retryDelay")
+    int downloadRetryDelay;
+
+    /**
+     * Skips downloading the drivers.
+     */
+    @Parameter(defaultValue = "false", property = "webdriverextensions.skip")
+    boolean skip;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (skip) {
+            getLog().info("Skipping prefetch-drivers goal execution");
+            return;
+        }
+        if (pluginWorkingDirectory == null) {
+            throw new MojoExecutionException("pluginWorkingDirectory must be set, otherwise the downloaded drivers would not be kept");
+        }
+
+        Repository repository = Repository.load(repositoryUrl, getProxyFromSettings(settings, proxyId));
+        saveRepositorySnapshot(repository);
+        Collection<Driver> driversToDownload = resolveDrivers(repository);
+        Path downloadDirectory = pluginWorkingDirectory.toPath().resolve("downloads");
+        getLog().info("Prefetching " + driversToDownload.size() + " drivers into " + quote(downloadDirectory));
+        if (driversToDownload.isEmpty()) {
+            return;
+        }
+        try (DriverDownloader driverDownloader = createDownloader()) {
+            driverDownloader.open();
+            download(driverDownloader, driversToDownload, downloadDirectory);
+        } catch (IOException ex) {
+            // ignored. close operation of downloader
+        }
+    }
+
+    /**
+     * saves the repository for the <code>verify-drivers</code> goal, which
+     * must not access the network
+     */
+    private void saveRepositorySnapshot(Repository repository) throws MojoExecutionException {
+        Path snapshot = pluginWorkingDirectory.toPath().resolve(Repository.SNAPSHOT_FILE_NAME);
+        try {
+            repository.writeSnapshot(snapshot);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to save repository snapshot to " + quote(snapshot), e);
+        }
+    }
+
+    /**
+     * @return the drivers to download, at most one per download location
+     */
+    private Collection<Driver> resolveDrivers(Repository repository) throws MojoExecutionException {
+        List<Driver> resolved;
+        if (allPlatforms) {
+            Set<String> names = drivers.stream().map(Driver::getName).map(String::toLowerCase).collect(Collectors.toSet());
+            resolved = repository.getLatestDriversForAllPlatforms().stream()
+                    .filter(driver -> names.isEmpty() || names.contains(driver.getName().toLowerCase()))
+                    .collect(Collectors.toList());
+        } else if (drivers.isEmpty()) {
+            resolved = repository.getLatestDrivers();
+        } else {
+            resolved = drivers.stream()
+                    .map(Unchecked.function(repository::enrichDriver))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        }
+        // drivers sharing a download location must not be downloaded concurrently
+        Map<String, Driver> byDownloadLocation = new LinkedHashMap<>();
+        resolved.forEach(driver -> byDownloadLocation.putIfAbsent(driver.getDriverDownloadDirectoryName() + "/" + driver.getFilenameFromUrl(), driver));
+        return byDownloadLocation.values();
+    }
+
+    private void download(DriverDownloader driverDownloader, Collection<Driver> driversToDownload, Path downloadDirectory) throws MojoExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(prefetchThreads, driversToDownload.size())), runnable -> {
+            Thread thread = new Thread(runnable, "webdriverextensions-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            CompletionService<Path> downloads = new ExecutorCompletionService<>(executor);
+            driversToDownload.forEach(driver -> downloads.submit(() -> driverDownloader.downloadFile(driver, downloadDirectory)));
+            for (int i = 0; i < driversToDownload.size(); i++) {
+                downloads.take().get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while prefetching drivers", e);
+        } catch (ExecutionException e) {
+            // fail on the first failed download, the pending ones are cancelled
+            if (e.getCause() instanceof MojoExecutionException) {
+                throw (MojoExecutionException) e.getCause();
+            }
+            throw new MojoExecutionException("Failed to prefetch drivers", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private DriverDownloader createDownloader() {
+        return new DriverDownloader(getLog())
+                .withProxy(getProxyFromSettings(settings, proxyId))
+                .withTimeouts(downloadConnectTimeout, downloadResponseTimeout)
+                .withRetry(downloadMaxRetries, downloadRetryDelay)
+                .withMaxConnections(prefetchThreads);
+    }
+}
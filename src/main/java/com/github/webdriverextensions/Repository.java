@@ -7,20 +7,31 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import org.apache.hc.client5.http.ClientProtocolException;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.impl.classic.BasicHttpClientResponseHandler;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.ParseException;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
 import org.apache.maven.artifact.versioning.ComparableVersion;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.settings.Proxy;
@@ -35,17 +46,47 @@ import static org.codehaus.plexus.util.StringUtils.trim;
 
 class Repository {
 
+    /**
+     * the name of the repository snapshot in the plugin working directory
+     */
+    static final String SNAPSHOT_FILE_NAME = "repository.json";
+
     @Expose
     private List<Driver> drivers;
+    private String content;
+    private String digest;
 
     static Repository load(URL repositoryUrl, Optional<Proxy> proxySettings) throws MojoExecutionException {
+        OperationEvent event = OperationEvent.begin(OperationEvent.Type.REPOSITORY_LOAD);
+        try {
+            String repositoryAsString;
+            try {
+                repositoryAsString = downloadAsString(repositoryUrl.toURI(), proxySettings, event);
+            } catch (IOException | URISyntaxException e) {
+                throw new InstallDriversMojoExecutionException("Failed to download repository from url " + quote(
+                        repositoryUrl), e);
+            }
+            return parse(repositoryAsString, repositoryUrl.toString());
+        } finally {
+            event.end();
+        }
+    }
+
+    /**
+     * loads a repository saved by {@link #writeSnapshot(Path)} without
+     * accessing the network
+     */
+    static Repository loadSnapshot(Path snapshot) throws MojoExecutionException {
         String repositoryAsString;
         try {
-            repositoryAsString = downloadAsString(repositoryUrl.toURI(), proxySettings);
-        } catch (IOException | URISyntaxException e) {
-            throw new InstallDriversMojoExecutionException("Failed to download repository from url " + quote(
-                    repositoryUrl), e);
+            repositoryAsString = new String(Files.readAllBytes(snapshot), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new InstallDriversMojoExecutionException("Failed to read repository snapshot " + quote(snapshot), e);
         }
+        return parse(repositoryAsString, snapshot.toString());
+    }
+
+    private static Repository parse(String repositoryAsString, String source) throws MojoExecutionException {
         if (isBlank(trim(repositoryAsString))) {
             throw new InstallDriversMojoExecutionException("repository file is empty");
         }
@@ -58,15 +99,40 @@ class Repository {
                     .fromJson(repositoryAsString, Repository.class)
                     .drivers;
         } catch (JsonSyntaxException e) {
-            throw new InstallDriversMojoExecutionException("Failed to parse repository json " + quote(repositoryUrl), e);
+            throw new InstallDriversMojoExecutionException("Failed to parse repository json " + quote(source), e);
         }
 
         repository.drivers.sort(driversComparator());
+        repository.content = repositoryAsString;
 
         return repository;
     }
 
-    private static Comparator<Driver> driversComparator() {
+    /**
+     * @return the sha-256 of the repository as it was loaded
+     */
+    String getDigest() {
+        if (digest == null) {
+            MessageDigest sha256 = Checksums.sha256();
+            Checksums.update(sha256, content);
+            digest = Checksums.toHex(sha256.digest());
+        }
+        return digest;
+    }
+
+    /**
+     * saves the repository as it was loaded, so that it can be loaded again by
+     * {@link #loadSnapshot(Path)}
+     */
+    void writeSnapshot(Path snapshot) throws IOException {
+        // replaced by a rename, so that a snapshot is never read half written
+        Path incompleteSnapshot = snapshot.resolveSibling("." + snapshot.getFileName() + ".incomplete");
+        Files.createDirectories(snapshot.getParent());
+        Files.write(incompleteSnapshot, content.getBytes(StandardCharsets.UTF_8));
+        Files.move(incompleteSnapshot, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static Comparator<Driver> driversComparator() {
         Comparator<Driver> byId = new DriverComparator.ById();
         // sort by version descending (newest first)
         Comparator<Driver> byVersion = new DriverComparator.ByVersion().reversed();
@@ -76,9 +142,13 @@ class Repository {
         return byId.thenComparing(byVersion).thenComparing(byArch);
     }
 
-    private static String downloadAsString(URI url, Optional<Proxy> proxySettings) throws IOException {
+    /**
+     * @param event receives the number of downloaded bytes
+     */
+    private static String downloadAsString(URI url, Optional<Proxy> proxySettings, OperationEvent event) throws IOException {
         // kept vor backward compatibility
         if ("file".equalsIgnoreCase(url.getScheme())) {
+            event.bytes(Files.size(Paths.get(url)));
             return Files.lines(Paths.get(url)).collect(Collectors.joining());
         }
         HttpClientBuilder httpClientBuilder = HttpClients.custom().disableCookieManagement();
@@ -87,7 +157,19 @@ class Repository {
             ProxyUtils.createProxyCredentialsFromSettings(proxy).ifPresent(httpClientBuilder::setDefaultCredentialsProvider);
         });
         try (CloseableHttpClient httpClient = httpClientBuilder.build()) {
-            return httpClient.execute(new HttpGet(url), new BasicHttpClientResponseHandler());
+            return httpClient.execute(new HttpGet(url), new BasicHttpClientResponseHandler() {
+                @Override
+                public String handleEntity(HttpEntity entity) throws IOException {
+                    byte[] content = EntityUtils.toByteArray(entity);
+                    event.bytes(content.length);
+                    // decoded like the default handler does
+                    try {
+                        return EntityUtils.toString(new ByteArrayEntity(content, ContentType.parseLenient(entity.getContentType())));
+                    } catch (ParseException e) {
+                        throw new ClientProtocolException(e);
+                    }
+                }
+            });
         }
     }
 
@@ -188,6 +270,19 @@ class Repository {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * @return the latest version of every driver in the repository, i.e. one
+     * driver for each combination of name, platform, bit and architecture
+     */
+    List<Driver> getLatestDriversForAllPlatforms() {
+        return drivers.stream()
+                .collect(Collectors.groupingBy(driver -> driver.getId() + "-" + driver.getArchitecture(), LinkedHashMap::new, Collectors.toList()))
+                .values().stream()
+                .map(this::filterLatestDriver)
+                .sorted(driversComparator())
+                .collect(Collectors.toList());
+    }
+
     private Driver getDriverByBit(String bit, List<Driver> driversWithDriverNameAndPlatform) {
         List<Driver> driversWithDriverNameAndPlatformAndBit = filterDrivers(driversWithDriverNameAndPlatform, null, null, bit, null, null);
         return filterLatestDriver(driversWithDriverNameAndPlatformAndBit);
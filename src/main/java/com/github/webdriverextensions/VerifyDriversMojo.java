@@ -0,0 +1,124 @@
+package com.github.webdriverextensions;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.jooq.lambda.Unchecked;
+
+import static com.github.webdriverextensions.Utils.quote;
+import static org.codehaus.plexus.util.StringUtils.isNotBlank;
+
+/**
+ * Verify that the configured drivers are installed, without accessing the
+ * network. The drivers are resolved with the repository snapshot saved in the
+ * <code>pluginWorkingDirectory</code> by the <code>install-drivers</code> goal
+ * (if <code>keepDownloadedWebdrivers</code> is <code>true</code>) or by the
+ * <code>prefetch-drivers</code> goal. Fails if a driver is missing, if another
+ * version is installed or if an installed file has been changed since
+ * installing it (only if <code>verifyInstalledDrivers</code> was
+ * <code>true</code> while installing it).
+ *
+ * @since 4.1.0
+ */
+@Mojo(name = "verify-drivers", requiresProject = false)
+public class VerifyDriversMojo extends AbstractMojo {
+
+    /**
+     * The path to the directory where the drivers are installed.
+     */
+    @Parameter(defaultValue = "${basedir}/drivers", property = "webdriverextensions.installDirectory")
+    File installationDirectory;
+
+    /**
+     * List of drivers to verify, configured like for the
+     * <code>install-drivers</code> goal. If no drivers are provided the latest
+     * drivers for the running platform are expected.
+     */
+    @Parameter
+    List<Driver> drivers = new ArrayList<>();
+
+    /**
+     * The working directory of the <code>install-drivers</code> goal, which
+     * contains the repository snapshot. Not needed if all drivers are
+     * configured with a URL.
+     */
+    @Parameter(property = "webdriverextensions.workingDirectory")
+    File pluginWorkingDirectory;
+
+    /**
+     * Skips the verification.
+     */
+    @Parameter(defaultValue = "false", property = "webdriverextensions.skip")
+    boolean skip;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (skip) {
+            getLog().info("Skipping verify-drivers goal execution");
+            return;
+        }
+
+        Path installation = installationDirectory.toPath();
+        DriverVersionHandler versionHandler = new DriverVersionHandler(installation);
+        DriverManifest manifest = new DriverManifest(getLog(), installation);
+        List<String> differences = new ArrayList<>();
+        for (Driver driver : resolveDrivers()) {
+            Driver installed = versionHandler.readVersionFile(driver);
+            if (installed == null || !isInstalled(installation, driver)) {
+                differences.add("missing:   " + driver.getId() + " version " + driver.getVersion());
+            } else if (!driver.equals(installed)) {
+                differences.add("outdated:  " + driver.getId() + " version " + installed.getVersion() + " is installed, expected "
+                        + (Objects.equals(driver.getVersion(), installed.getVersion()) ? "other configuration of it" : "version " + driver.getVersion()));
+            } else if (manifest.exists(driver) && !manifest.isIntact(driver)) {
+                differences.add("corrupted: " + driver.getId() + " version " + driver.getVersion());
+            } else {
+                getLog().info("  " + driver.getId() + " version " + driver.getVersion() + " is installed");
+            }
+        }
+        if (!differences.isEmpty()) {
+            throw new MojoFailureException("Installed drivers in " + quote(installation) + " differ from the expected drivers:"
+                    + differences.stream().map(difference -> System.lineSeparator() + "  " + difference).collect(Collectors.joining()));
+        }
+    }
+
+    private List<Driver> resolveDrivers() throws MojoExecutionException {
+        if (!drivers.isEmpty() && drivers.stream().allMatch(driver -> isNotBlank(driver.getUrl()))) {
+            // drivers with an URL are not resolved by the repository
+            return drivers;
+        }
+        Repository repository = loadRepositorySnapshot();
+        if (drivers.isEmpty()) {
+            return repository.getLatestDrivers();
+        }
+        return drivers.stream()
+                .map(Unchecked.function(repository::enrichDriver))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private Repository loadRepositorySnapshot() throws MojoExecutionException {
+        if (pluginWorkingDirectory == null) {
+            throw new MojoExecutionException("pluginWorkingDirectory must be set to find the repository snapshot");
+        }
+        Path snapshot = pluginWorkingDirectory.toPath().resolve(Repository.SNAPSHOT_FILE_NAME);
+        if (!Files.isRegularFile(snapshot)) {
+            throw new MojoExecutionException("No repository snapshot found at " + quote(snapshot)
+                    + ". Run the install-drivers goal with keepDownloadedWebdrivers or the prefetch-drivers goal with the same pluginWorkingDirectory first");
+        }
+        return Repository.loadSnapshot(snapshot);
+    }
+
+    private static boolean isInstalled(Path installation, Driver driver) {
+        // directories are installed without the file extension of the platform
+        return Files.exists(installation.resolve(driver.getFileName())) || Files.exists(installation.resolve(driver.getId()));
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.webdriverextensions;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Exclusive lock on the kept versions of a driver
+ * ({@code .<id>.versions}), held by {@link DriverInstaller} while it
+ * installs or links a version and by {@link DriverGarbageCollector} while it
+ * picks and retires versions, so that a version is never deleted while a
+ * build switches to it.
+ * <p>
+ * Builds in other processes are excluded by a {@link FileChannel} lock on
+ * {@value #LOCK_FILE_NAME}. Since such a lock is held on behalf of the whole
+ * JVM, builds in the same JVM (e.g. with <code>-T</code>) are excluded by an
+ * additional lock per directory.
+ */
+final class VersionsLock implements Closeable {
+
+    static final String LOCK_FILE_NAME = ".lock";
+
+    private static final Map<Path, ReentrantLock> LOCKS_IN_THIS_JVM = new ConcurrentHashMap<>();
+
+    private final ReentrantLock lockInThisJvm;
+    private final FileChannel channel;
+
+    private VersionsLock(ReentrantLock lockInThisJvm, FileChannel channel) {
+        this.lockInThisJvm = lockInThisJvm;
+        this.channel = channel;
+    }
+
+    /**
+     * waits until the lock on {@code versionsDirectory} is acquired. the
+     * directory must exist.
+     */
+    static VersionsLock acquire(Path versionsDirectory) throws IOException {
+        ReentrantLock lockInThisJvm = LOCKS_IN_THIS_JVM.computeIfAbsent(versionsDirectory.toAbsolutePath().normalize(), directory -> new ReentrantLock());
+        lockInThisJvm.lock();
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(versionsDirectory.resolve(LOCK_FILE_NAME), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            // released by closing the channel
+            channel.lock();
+            return new VersionsLock(lockInThisJvm, channel);
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) {
+                channel.close();
+            }
+            lockInThisJvm.unlock();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            lockInThisJvm.unlock();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.webdriverextensions.newversion;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The archive and compression formats {@link FileExtractorImpl} extracts,
+ * detected from the first bytes of a file.
+ */
+enum ArchiveFormat {
+    ZIP,
+    TAR,
+    GZIP,
+    BZIP2,
+    XZ,
+    ZSTD;
+
+    /**
+     * the number of leading bytes needed to detect any format. a tar header
+     * is the longest.
+     */
+    static final int HEADER_SIZE = 512;
+
+    private static final int TAR_MAGIC_OFFSET = 257;
+    private static final byte[] TAR_MAGIC = {'u', 's', 't', 'a', 'r'};
+    private static final byte[] XZ_MAGIC = {(byte) 0xFD, '7', 'z', 'X', 'Z', 0};
+    private static final byte[] ZSTD_MAGIC = {0x28, (byte) 0xB5, 0x2F, (byte) 0xFD};
+
+    /**
+     * @return the format of the {@code length} bytes {@code header} starts
+     * with or null if the format is not known
+     */
+    static ArchiveFormat detect(byte[] header, int length) {
+        if (length >= 4 && header[0] == 'P' && header[1] == 'K'
+                && (header[2] == 3 && header[3] == 4 || header[2] == 5 && header[3] == 6 || header[2] == 7 && header[3] == 8)) {
+            return ZIP;
+        }
+        if (length >= 2 && header[0] == 0x1F && header[1] == (byte) 0x8B) {
+            return GZIP;
+        }
+        if (length >= 4 && header[0] == 'B' && header[1] == 'Z' && header[2] == 'h' && header[3] >= '1' && header[3] <= '9') {
+            return BZIP2;
+        }
+        if (startsWith(header, length, 0, XZ_MAGIC)) {
+            return XZ;
+        }
+        if (startsWith(header, length, 0, ZSTD_MAGIC)) {
+            return ZSTD;
+        }
+        if (startsWith(header, length, TAR_MAGIC_OFFSET, TAR_MAGIC)) {
+            return TAR;
+        }
+        return null;
+    }
+
+    /**
+     * @return the format of {@code file} or null if the format is not known
+     */
+    static ArchiveFormat detect(Path file) throws IOException {
+        byte[] header = new byte[HEADER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            return detect(header, readHeader(in, header));
+        }
+    }
+
+    /**
+     * reads up to {@code header.length} bytes
+     *
+     * @return the number of bytes read
+     */
+    static int readHeader(InputStream in, byte[] header) throws IOException {
+        int length = 0;
+        while (length < header.length) {
+            int count = in.read(header, length, header.length - length);
+            if (count == -1) {
+                break;
+            }
+            length += count;
+        }
+        return length;
+    }
+
+    static boolean startsWith(byte[] header, int length, int offset, byte[] magic) {
+        if (length < offset + magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if (header[offset + i] != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,26 @@
+package com.github.webdriverextensions.newversion;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Keeps a few large buffers for reading and writing archives, so that
+ * extracting an entry does not allocate buffers.
+ */
+@UtilityClass
+class BufferPool {
+
+    static final int BUFFER_SIZE = 256 * 1024;
+
+    private static final BlockingQueue<byte[]> BUFFERS = new ArrayBlockingQueue<>(16);
+
+    static byte[] acquire() {
+        byte[] buffer = BUFFERS.poll();
+        return buffer != null ? buffer : new byte[BUFFER_SIZE];
+    }
+
+    static void release(byte[] buffer) {
+        BUFFERS.offer(buffer);
+    }
+}
@@ -3,94 +3,295 @@ package com.github.webdriverextensions.newversion;
 import java.io.BufferedInputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
 import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
-import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorInputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdUtils;
 import org.codehaus.plexus.util.FileUtils;
 
 public class FileExtractorImpl implements FileExtractor {
 
+    /**
+     * zip archives with fewer entries to extract are extracted sequentially,
+     * since the threads would cost more than they save
+     */
+    private static final int PARALLEL_EXTRACTION_THRESHOLD = 64;
+
+    /**
+     * smaller bzip2 files consist of too few blocks to be worth decompressing
+     * them in parallel
+     */
+    private static final long PARALLEL_BZIP2_THRESHOLD = 1024 * 1024;
+
+    /**
+     * xz files with larger blocks are decompressed sequentially, since every
+     * block decoded in parallel is kept in memory
+     */
+    private static final long MAX_PARALLEL_XZ_BLOCK_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * matches regex constructs that are not just an escaped character
+     */
+    private static final Pattern REGEX_CONSTRUCT = Pattern.compile("\\\\[a-zA-Z0-9]|[.\\[\\]{}()*+?|^$]");
+
+    /**
+     * the extensions of files that are archives by their content, but are
+     * installed as they are, like the drivers and extensions packaged as jar
+     * or xpi
+     */
+    private static final Set<String> PACKAGE_EXTENSIONS = new HashSet<>(Arrays.asList(
+            "jar", "war", "ear", "aar", "apk", "xpi", "crx", "vsix", "nupkg", "whl", "appx", "msix", "ipa"));
+
+    private static final int NO_MODE = 0;
+    private static final boolean POSIX = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+    private static final Set<StandardOpenOption> CREATE_NEW_FILE = EnumSet.of(StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+
     private final Pattern extractPattern;
+    /**
+     * the number of files {@link #extractPattern} can match at most. once
+     * extracted, the rest of the archive is not read.
+     */
+    private final int maxMatches;
+    private final int parallelism;
+    /**
+     * the format of the file detected last, so that a file is read once to
+     * detect it, not by every method called with it
+     */
+    private volatile Detection detection;
 
     private final PathMatcher TAR_BZ2 = FileSystems.getDefault().getPathMatcher("glob:**.tar.bz2");
     private final PathMatcher TAR_GZ = FileSystems.getDefault().getPathMatcher("glob:**.tar.gz");
     private final PathMatcher BZ2 = FileSystems.getDefault().getPathMatcher("glob:**.bz2");
     private final PathMatcher GZ = FileSystems.getDefault().getPathMatcher("glob:**.gz");
+    private final PathMatcher TAR_XZ = FileSystems.getDefault().getPathMatcher("glob:**.tar.xz");
+    private final PathMatcher TAR_ZST = FileSystems.getDefault().getPathMatcher("glob:**.tar.zst");
+    private final PathMatcher XZ = FileSystems.getDefault().getPathMatcher("glob:**.xz");
+    private final PathMatcher ZST = FileSystems.getDefault().getPathMatcher("glob:**.zst");
     private final PathMatcher TAR = FileSystems.getDefault().getPathMatcher("glob:**.tar");
     private final PathMatcher ZIP = FileSystems.getDefault().getPathMatcher("glob:**.zip");
 
     public FileExtractorImpl(String extractPattern) {
+        this(extractPattern, null);
+    }
+
+    /**
+     * @param extractPattern only the files matching this pattern are extracted
+     * if set
+     * @param expectedMatches the number of files {@code extractPattern} is
+     * expected to match. if not set, a pattern that is just a path matches
+     * only one file.
+     */
+    public FileExtractorImpl(String extractPattern, Integer expectedMatches) {
+        this(extractPattern, expectedMatches, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param extractPattern only the files matching this pattern are extracted
+     * if set
+     * @param expectedMatches the number of files {@code extractPattern} is
+     * expected to match. if not set, a pattern that is just a path matches
+     * only one file.
+     * @param parallelism the maximum number of threads extracting the entries of
+     * a zip archive or decompressing the blocks of a bzip2 or xz file
+     */
+    public FileExtractorImpl(String extractPattern, Integer expectedMatches, int parallelism) {
         this.extractPattern = extractPattern == null ? null : Pattern.compile(extractPattern);
+        if (expectedMatches != null) {
+            this.maxMatches = expectedMatches;
+        } else if (extractPattern != null && isLiteral(extractPattern)) {
+            this.maxMatches = 1;
+        } else {
+            this.maxMatches = Integer.MAX_VALUE;
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @return if {@code pattern} matches exactly one string, apart from
+     * anchors at the start and the end
+     */
+    private static boolean isLiteral(String pattern) {
+        String unanchored = pattern.replaceFirst("^\\^", "").replaceFirst("(?<!\\\\)\\$$", "");
+        return !REGEX_CONSTRUCT.matcher(unanchored.replaceAll("\\\\[^a-zA-Z0-9]", "")).find();
     }
 
     @Override
     public boolean isExtractable(Path file) {
-        return TAR_BZ2.matches(file) ||
-               TAR_GZ.matches(file) ||
-               BZ2.matches(file) ||
-               GZ.matches(file) ||
-               TAR.matches(file) ||
-               ZIP.matches(file);
+        return detectFormat(file) != null;
     }
 
     @Override
     public void extractFile(Path file, Path toDirectory) {
         try {
-            if (TAR_BZ2.matches(file)) {
-                extractTarBz2File(file, toDirectory);
-            } else if (TAR_GZ.matches(file)) {
-                extractTarGzFile(file, toDirectory);
-            } else if (BZ2.matches(file)) {
-                extractBz2File(file, toDirectory);
-            } else if (GZ.matches(file)) {
-                extractGzFile(file, toDirectory);
-            } else if (TAR.matches(file)) {
-                extractTarFile(file, toDirectory);
-            } else if (ZIP.matches(file)) {
-                extractZipFile(file, toDirectory);
+            ArchiveFormat format = detectFormat(file);
+            if (format == null) {
+                return;
+            }
+            switch (format) {
+                case ZIP:
+                    extractZipFile(file, toDirectory);
+                    break;
+                case TAR:
+                    extractTarFile(file, toDirectory);
+                    break;
+                case GZIP:
+                    extractCompressedFile(file, toDirectory, openGzFile(file));
+                    break;
+                case BZIP2:
+                    extractCompressedFile(file, toDirectory, openBZip2File(file));
+                    break;
+                case XZ:
+                    extractCompressedFile(file, toDirectory, openXzFile(file));
+                    break;
+                case ZSTD:
+                    extractCompressedFile(file, toDirectory, openZstFile(file));
+                    break;
+                default:
+                    throw new IllegalStateException("Unsupported format " + format);
             }
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * takes the format of {@code file} detected from its first bytes by
+     * {@link FileExtractorRegistry}, so that the file is not read again to
+     * detect it
+     *
+     * @param formatOfContent null if the first bytes match no format
+     * @return this extractor
+     */
+    FileExtractorImpl withFormatOfContent(Path file, ArchiveFormat formatOfContent) {
+        detection = new Detection(file, detectFormat(file, formatOfContent));
+        return this;
+    }
+
+    private ArchiveFormat detectFormat(Path file) {
+        Detection lastDetection = detection;
+        if (lastDetection != null && lastDetection.file.equals(file)) {
+            return lastDetection.format;
+        }
+        ArchiveFormat formatOfContent = null;
+        if (!isPackage(file)) {
+            try {
+                formatOfContent = ArchiveFormat.detect(file);
+            } catch (IOException e) {
+                // the name is all there is to go by
+            }
+        }
+        return withFormatOfContent(file, formatOfContent).detection.format;
+    }
+
+    /**
+     * @return {@code formatOfContent} or, if not detected, the format detected
+     * from the name of {@code file}. null if not extractable, which includes
+     * packages named by {@link #PACKAGE_EXTENSIONS} whatever their content.
+     */
+    private ArchiveFormat detectFormat(Path file, ArchiveFormat formatOfContent) {
+        if (isPackage(file)) {
+            // zip based, but the download itself is what is to be installed
+            return null;
+        }
+        if (formatOfContent != null) {
+            return formatOfContent;
+        }
+        if (ZIP.matches(file)) {
+            return ArchiveFormat.ZIP;
+        } else if (TAR.matches(file)) {
+            return ArchiveFormat.TAR;
+        } else if (GZ.matches(file)) {
+            return ArchiveFormat.GZIP;
+        } else if (BZ2.matches(file)) {
+            return ArchiveFormat.BZIP2;
+        } else if (XZ.matches(file)) {
+            return ArchiveFormat.XZ;
+        } else if (ZST.matches(file)) {
+            return ArchiveFormat.ZSTD;
+        }
+        return null;
+    }
+
+    private static boolean isPackage(Path file) {
+        return PACKAGE_EXTENSIONS.contains(FileUtils.extension(file.getFileName().toString()).toLowerCase(Locale.ROOT));
+    }
+
     private static String basename(Path file) {
         final String name = file.getFileName().toString();
         final String extension = FileUtils.extension(name);
         return FileUtils.basename(name, extension.isEmpty() ? extension : "." + extension);
     }
 
-    private void extractBz2File(Path file, Path toDirectory) throws IOException {
-        String extractedFilename = basename(file);
-        Path fileToExtract = toDirectory.resolve(extractedFilename);
-        try (FileInputStream fin = new FileInputStream(file.toFile())) {
-            try (BufferedInputStream bin = new BufferedInputStream(fin)) {
-                try (BZip2CompressorInputStream bzip2Archive = new BZip2CompressorInputStream(bin)) {
-                    Files.copy(bzip2Archive, fileToExtract);
+    /**
+     * extracts the tar archive or the single file that is compressed in
+     * {@code file}
+     */
+    private void extractCompressedFile(Path file, Path toDirectory, InputStream decompressed) throws IOException {
+        try (InputStream in = new BufferedInputStream(decompressed, ArchiveFormat.HEADER_SIZE)) {
+            if (containsTar(file, in)) {
+                Files.createDirectories(toDirectory);
+                try (TarArchiveInputStream tarArchive = new TarArchiveInputStream(in)) {
+                    extractTar(toDirectory, tarArchive);
                 }
+            } else {
+                copy(in, toDirectory.resolve(basename(file)), null, permissions(NO_MODE));
             }
         }
     }
 
-    private void extractGzFile(Path file, Path toDirectory) throws IOException {
-        String extractedFilename = basename(file);
-        Path fileToExtract = toDirectory.resolve(extractedFilename);
-        try (FileInputStream fin = new FileInputStream(file.toFile())) {
-            try (BufferedInputStream bin = new BufferedInputStream(fin)) {
-                try (GzipCompressorInputStream gzipArchive = new GzipCompressorInputStream(bin)) {
-                    Files.copy(gzipArchive, fileToExtract);
-                }
-            }
+    /**
+     * @return if the name of {@code file} says so or, if its name does not
+     * tell, if the decompressed content starts with a tar header
+     */
+    private boolean containsTar(Path file, InputStream decompressed) throws IOException {
+        if (TAR_BZ2.matches(file) || TAR_GZ.matches(file) || TAR_XZ.matches(file) || TAR_ZST.matches(file)) {
+            // also covers old tar archives without magic bytes
+            return true;
         }
+        if (BZ2.matches(file) || GZ.matches(file) || XZ.matches(file) || ZST.matches(file)) {
+            return false;
+        }
+        byte[] header = new byte[ArchiveFormat.HEADER_SIZE];
+        decompressed.mark(header.length);
+        int length = ArchiveFormat.readHeader(decompressed, header);
+        decompressed.reset();
+        return ArchiveFormat.detect(header, length) == ArchiveFormat.TAR;
     }
 
     private void extractTarFile(Path file, Path toDirectory) throws IOException {
@@ -104,41 +305,81 @@ public class FileExtractorImpl implements FileExtractor {
         }
     }
 
-    private void extractTarBz2File(Path file, Path toDirectory) throws IOException {
-        Files.createDirectories(toDirectory);
-        try (FileInputStream fin = new FileInputStream(file.toFile())) {
-            try (BufferedInputStream bin = new BufferedInputStream(fin)) {
-                try (BZip2CompressorInputStream bzip2Archive = new BZip2CompressorInputStream(bin)) {
-                    try (TarArchiveInputStream tarArchive = new TarArchiveInputStream(bzip2Archive)) {
-                        extractTar(toDirectory, tarArchive);
-                    }
-                }
+    private InputStream openBZip2File(Path file) throws IOException {
+        if (parallelism > 1 && Files.size(file) >= PARALLEL_BZIP2_THRESHOLD) {
+            return new ParallelBZip2CompressorInputStream(file, parallelism);
+        }
+        InputStream in = new BufferedInputStream(Files.newInputStream(file));
+        try {
+            return new BZip2CompressorInputStream(in, true);
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    private InputStream openXzFile(Path file) throws IOException {
+        if (parallelism > 1) {
+            InputStream parallelXz = ParallelXZInputStream.open(file.toFile(), parallelism, MAX_PARALLEL_XZ_BLOCK_SIZE);
+            if (parallelXz != null) {
+                return parallelXz;
             }
         }
+        InputStream in = new BufferedInputStream(Files.newInputStream(file));
+        try {
+            return new XZCompressorInputStream(in, true);
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    private static InputStream openZstFile(Path file) throws IOException {
+        // zstd-jni is an optional dependency of the plugin
+        if (!ZstdUtils.isZstdCompressionAvailable()) {
+            throw new IOException("Cannot extract " + file + " compressed with Zstandard, add com.github.luben:zstd-jni to the dependencies of the plugin");
+        }
+        InputStream in = new BufferedInputStream(Files.newInputStream(file));
+        try {
+            return new ZstdCompressorInputStream(in);
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
     }
 
     private void extractTar(Path toDirectory, TarArchiveInputStream tarArchive) throws IOException {
-        for (TarArchiveEntry tarEntry = tarArchive.getNextEntry(); tarEntry != null; tarEntry = tarArchive.getNextEntry()) {
-            if (tarEntry.isDirectory()) {
-                Path fileToExtract = toDirectory.resolve(tarEntry.getName());
-                if (extractPattern != null || !isPathSaveToUse(fileToExtract, toDirectory)) {
-                    continue;
-                }
-                Files.createDirectories(fileToExtract);
-            } else {
-                if (tarEntry.isSymbolicLink()) {
-                    continue;
+        // with more than one processor, files are written while the next entry is decompressed
+        try (PipelinedFileWriter writer = parallelism > 1 ? new PipelinedFileWriter() : null) {
+            int matches = 0;
+            for (TarArchiveEntry tarEntry = tarArchive.getNextEntry(); tarEntry != null; tarEntry = tarArchive.getNextEntry()) {
+                if (tarEntry.isDirectory()) {
+                    Path fileToExtract = toDirectory.resolve(tarEntry.getName());
+                    if (extractPattern != null || !isPathSaveToUse(fileToExtract, toDirectory)) {
+                        continue;
+                    }
+                    Files.createDirectories(fileToExtract);
+                } else {
+                    if (tarEntry.isSymbolicLink()) {
+                        continue;
+                    }
+                    if (extractPattern(toDirectory, tarArchive, tarEntry, writer) && ++matches == maxMatches) {
+                        // the rest of the archive is not read
+                        break;
+                    }
                 }
-                extractPattern(toDirectory, tarArchive, tarEntry);
             }
         }
     }
 
-    private void extractPattern(Path toDirectory, TarArchiveInputStream tarArchive, TarArchiveEntry tarEntry) throws IOException {
+    /**
+     * @return if the entry matched {@link #extractPattern} and was extracted
+     */
+    private boolean extractPattern(Path toDirectory, TarArchiveInputStream tarArchive, TarArchiveEntry tarEntry, PipelinedFileWriter writer) throws IOException {
         Path fileToExtract = toDirectory.resolve(tarEntry.getName());
         if (extractPattern != null) {
             if (!extractPattern.matcher(tarEntry.getName()).matches()) {
-                return;
+                return false;
             }
             Path filename = Paths.get(tarEntry.getName()).getFileName();
             fileToExtract = toDirectory.resolve(filename);
@@ -148,28 +389,145 @@ public class FileExtractorImpl implements FileExtractor {
             if (!Files.isDirectory(fileToExtract.getParent())) {
                 Files.createDirectories(fileToExtract.getParent());
             }
-            Files.copy(tarArchive, fileToExtract);
+            FileAttribute<?>[] permissions = permissions(tarEntry.getMode());
+            FileTime lastModifiedTime = lastModifiedTime(tarEntry.getLastModifiedDate());
+            if (writer != null) {
+                writer.write(tarArchive, fileToExtract, lastModifiedTime, permissions);
+            } else {
+                copy(tarArchive, fileToExtract, lastModifiedTime, permissions);
+            }
+            return extractPattern != null;
         }
+        return false;
+    }
+
+    private static InputStream openGzFile(Path file) throws IOException {
+        return new GzipInflaterInputStream(Channels.newInputStream(FileChannel.open(file, StandardOpenOption.READ)));
     }
 
-    private void extractTarGzFile(Path file, Path toDirectory) throws IOException {
+    private void extractZipFile(Path file, Path toDirectory) throws IOException {
         Files.createDirectories(toDirectory);
-        try (FileInputStream fin = new FileInputStream(file.toFile())) {
-            try (BufferedInputStream bin = new BufferedInputStream(fin)) {
-                try (GzipCompressorInputStream gzipArchive = new GzipCompressorInputStream(bin)) {
-                    try (TarArchiveInputStream tarArchive = new TarArchiveInputStream(gzipArchive)) {
-                        extractTar(toDirectory, tarArchive);
+        final ZipFile zipFile;
+        try {
+            zipFile = ZipFile.builder().setSeekableByteChannel(FileChannel.open(file, StandardOpenOption.READ)).get();
+        } catch (IOException e) {
+            // e.g. no usable central directory. the local file headers may still be readable.
+            extractZipStream(file, toDirectory);
+            return;
+        }
+        // the central directory lists all entries, so only the entries to extract need to be read and inflated
+        try {
+            List<ZipArchiveEntry> entriesToExtract = new ArrayList<>();
+            List<Path> filesToExtract = new ArrayList<>();
+            for (ZipArchiveEntry zipEntry : Collections.list(zipFile.getEntriesInPhysicalOrder())) {
+                if (extractPattern != null && entriesToExtract.size() == maxMatches) {
+                    break;
+                }
+                Path fileToExtract = toDirectory.resolve(zipEntry.getName());
+                if (zipEntry.isDirectory()) {
+                    if (extractPattern != null || !isPathSaveToUse(fileToExtract, toDirectory)) {
+                        continue;
+                    }
+                    Files.createDirectories(fileToExtract);
+                } else {
+                    if (zipEntry.isUnixSymlink()) {
+                        continue;
+                    }
+                    if (extractPattern != null) {
+                        if (!extractPattern.matcher(zipEntry.getName()).matches()) {
+                            continue;
+                        }
+                        Path filename = Paths.get(zipEntry.getName()).getFileName();
+                        fileToExtract = toDirectory.resolve(filename);
                     }
+                    if (isPathSaveToUse(fileToExtract, toDirectory)) {
+                        // issue #50: directory entries may not have the D attribute set. we may have to create the directory first.
+                        if (!Files.isDirectory(fileToExtract.getParent())) {
+                            Files.createDirectories(fileToExtract.getParent());
+                        }
+                        entriesToExtract.add(zipEntry);
+                        filesToExtract.add(fileToExtract);
+                    }
+                }
+            }
+            if (parallelism > 1 && entriesToExtract.size() >= PARALLEL_EXTRACTION_THRESHOLD) {
+                extractZipEntriesInParallel(zipFile, entriesToExtract, filesToExtract);
+            } else {
+                for (int i = 0; i < entriesToExtract.size(); i++) {
+                    extractZipEntry(zipFile, entriesToExtract.get(i), filesToExtract.get(i));
                 }
             }
+        } finally {
+            zipFile.close();
         }
     }
 
-    private void extractZipFile(Path file, Path toDirectory) throws IOException {
-        Files.createDirectories(toDirectory);
+    /**
+     * inflates the entries on a pool of {@link #parallelism} threads. the
+     * entry streams of a {@link ZipFile} opened on a {@link FileChannel} use
+     * positional reads, so every worker reads its entries independently of the
+     * others.
+     */
+    private void extractZipEntriesInParallel(ZipFile zipFile, List<ZipArchiveEntry> entries, List<Path> filesToExtract) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, entries.size()), runnable -> {
+            Thread thread = new Thread(runnable, "webdriverextensions-extract");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> extractions = new ArrayList<>();
+            for (int i = 0; i < entries.size(); i++) {
+                ZipArchiveEntry zipEntry = entries.get(i);
+                Path fileToExtract = filesToExtract.get(i);
+                extractions.add(executor.submit(() -> {
+                    extractZipEntry(zipFile, zipEntry, fileToExtract);
+                    return null;
+                }));
+            }
+            for (Future<?> extraction : extractions) {
+                extraction.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while extracting " + zipFile);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+            awaitTermination(executor);
+        }
+    }
+
+    private static void awaitTermination(ExecutorService executor) {
+        try {
+            // the zip file must not be closed while an entry is still being extracted
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void extractZipEntry(ZipFile zipFile, ZipArchiveEntry zipEntry, Path fileToExtract) throws IOException {
+        try (InputStream entryStream = openZipEntry(zipFile, zipEntry)) {
+            copy(entryStream, fileToExtract, lastModifiedTime(zipEntry.getLastModifiedDate()), permissions(zipEntry.getUnixMode()));
+        }
+    }
+
+    private static InputStream openZipEntry(ZipFile zipFile, ZipArchiveEntry zipEntry) throws IOException {
+        if (zipEntry.getMethod() == ZipEntry.DEFLATED && !zipEntry.getGeneralPurposeBit().usesEncryption()) {
+            return new ZipEntryInflaterInputStream(zipFile.getRawInputStream(zipEntry), zipEntry);
+        }
+        return zipFile.getInputStream(zipEntry);
+    }
+
+    private void extractZipStream(Path file, Path toDirectory) throws IOException {
         try (FileInputStream fis = new FileInputStream(file.toFile())) {
             try (BufferedInputStream bis = new BufferedInputStream(fis)) {
                 try (ZipArchiveInputStream zipArchive = new ZipArchiveInputStream(bis)) {
+                    int matches = 0;
                     for (ZipArchiveEntry zipEntry = zipArchive.getNextEntry(); zipEntry != null; zipEntry = zipArchive.getNextEntry()) {
 
                         Path fileToExtract = toDirectory.resolve(zipEntry.getName());
@@ -194,7 +552,10 @@ public class FileExtractorImpl implements FileExtractor {
                                 if (!Files.isDirectory(fileToExtract.getParent())) {
                                     Files.createDirectories(fileToExtract.getParent());
                                 }
-                                Files.copy(zipArchive, fileToExtract);
+                                copy(zipArchive, fileToExtract, lastModifiedTime(zipEntry.getLastModifiedDate()), permissions(zipEntry.getUnixMode()));
+                                if (extractPattern != null && ++matches == maxMatches) {
+                                    break;
+                                }
                             }
                         }
                     }
@@ -203,6 +564,62 @@ public class FileExtractorImpl implements FileExtractor {
         }
     }
 
+    /**
+     * like {@link Files#copy(InputStream, Path, java.nio.file.CopyOption...)}
+     * but with a buffer from {@link BufferPool} and the given attributes for
+     * the new file. its modification time is set if given.
+     */
+    private static void copy(InputStream in, Path target, FileTime lastModifiedTime, FileAttribute<?>... attributes) throws IOException {
+        byte[] buffer = BufferPool.acquire();
+        try (FileChannel out = FileChannel.open(target, CREATE_NEW_FILE, attributes)) {
+            ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+            for (int count = in.read(buffer); count != -1; count = in.read(buffer)) {
+                wrapped.clear();
+                wrapped.limit(count);
+                while (wrapped.hasRemaining()) {
+                    out.write(wrapped);
+                }
+            }
+        } finally {
+            BufferPool.release(buffer);
+        }
+        if (lastModifiedTime != null) {
+            Files.setLastModifiedTime(target, lastModifiedTime);
+        }
+    }
+
+    /**
+     * the modification time stored in an archive is kept, so that an
+     * unchanged file of a new driver version can be recognized without
+     * reading it
+     *
+     * @return null if the archive stores no modification time
+     */
+    static FileTime lastModifiedTime(Date lastModifiedDate) {
+        return lastModifiedDate == null || lastModifiedDate.getTime() == -1 ? null : FileTime.fromMillis(lastModifiedDate.getTime());
+    }
+
+    /**
+     * @param mode the unix mode of an archive entry or {@link #NO_MODE}
+     * @return the permissions to create the extracted file with. files without
+     * a mode are made executable, since they are most likely the driver
+     * binary.
+     */
+    static FileAttribute<?>[] permissions(int mode) {
+        if (!POSIX) {
+            return new FileAttribute<?>[0];
+        }
+        int permissionBits = (mode & 0777) != 0 ? mode & 0777 : 0755;
+        Set<PosixFilePermission> permissions = EnumSet.noneOf(PosixFilePermission.class);
+        for (PosixFilePermission permission : PosixFilePermission.values()) {
+            // OWNER_READ is 0400, OWNER_WRITE 0200, ... OTHERS_EXECUTE 0001
+            if ((permissionBits & (0400 >> permission.ordinal())) != 0) {
+                permissions.add(permission);
+            }
+        }
+        return new FileAttribute<?>[]{PosixFilePermissions.asFileAttribute(permissions)};
+    }
+
     /**
      * tests that {@code pathToTest} is not outside of {@code expectedParent}
      *
@@ -214,4 +631,14 @@ public class FileExtractorImpl implements FileExtractor {
     private static boolean isPathSaveToUse(Path pathToTest, Path expectedParent) {
         return pathToTest.normalize().startsWith(expectedParent);
     }
+
+    private static class Detection {
+        private final Path file;
+        private final ArchiveFormat format;
+
+        Detection(Path file, ArchiveFormat format) {
+            this.file = file;
+            this.format = format;
+        }
+    }
 }
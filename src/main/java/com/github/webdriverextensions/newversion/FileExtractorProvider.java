@@ -0,0 +1,28 @@
+package com.github.webdriverextensions.newversion;
+
+/**
+ * Provides {@link FileExtractor}s for an archive format that is not supported
+ * out of the box. Implementations are discovered with
+ * {@link java.util.ServiceLoader}, i.e. they are listed in
+ * {@code META-INF/services/com.github.webdriverextensions.newversion.FileExtractorProvider}
+ * of a jar added to the dependencies of the plugin.
+ *
+ * @since 4.1.0
+ */
+public interface FileExtractorProvider {
+
+    /**
+     * @return the bytes every file of the format starts with. must not be
+     * empty.
+     */
+    byte[] getMagicBytes();
+
+    /**
+     * @param extractPattern only the files matching this pattern are to be
+     * extracted if set
+     * @param expectedMatches the number of files {@code extractPattern} is
+     * expected to match, if known
+     * @return an extractor for files starting with {@link #getMagicBytes()}
+     */
+    FileExtractor createFileExtractor(String extractPattern, Integer expectedMatches);
+}
@@ -0,0 +1,78 @@
+package com.github.webdriverextensions.newversion;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Chooses the {@link FileExtractor} for a file by its first bytes, so that
+ * files are extracted independent of their name.
+ * <p>
+ * The {@link FileExtractorProvider}s found by the {@link ServiceLoader} are
+ * indexed by the first of their magic bytes, so only the providers sharing it
+ * are compared. Files no provider matches are left to
+ * {@link FileExtractorImpl}, which is given the {@link ArchiveFormat}
+ * detected from the same bytes, so that a file is read once to choose its
+ * extractor.
+ */
+public class FileExtractorRegistry {
+
+    @SuppressWarnings("unchecked")
+    private final List<FileExtractorProvider>[] providersByFirstByte = new List[256];
+    private int headerSize = ArchiveFormat.HEADER_SIZE;
+
+    FileExtractorRegistry(Iterable<FileExtractorProvider> providers) {
+        for (FileExtractorProvider provider : providers) {
+            register(provider);
+        }
+    }
+
+    private void register(FileExtractorProvider provider) {
+        byte[] magicBytes = provider.getMagicBytes();
+        if (magicBytes == null || magicBytes.length == 0) {
+            throw new IllegalArgumentException("No magic bytes provided by " + provider.getClass().getName());
+        }
+        int firstByte = magicBytes[0] & 0xFF;
+        if (providersByFirstByte[firstByte] == null) {
+            providersByFirstByte[firstByte] = new ArrayList<>(1);
+        }
+        providersByFirstByte[firstByte].add(provider);
+        headerSize = Math.max(headerSize, magicBytes.length);
+    }
+
+    /**
+     * @return a registry of the providers found on the class path of the
+     * plugin
+     */
+    public static FileExtractorRegistry load() {
+        return new FileExtractorRegistry(ServiceLoader.load(FileExtractorProvider.class, FileExtractorProvider.class.getClassLoader()));
+    }
+
+    /**
+     * @param extractPattern only the files matching this pattern are extracted
+     * if set
+     * @param expectedMatches the number of files {@code extractPattern} is
+     * expected to match, if known
+     * @return the extractor of the provider matching the first bytes of
+     * {@code file}. {@link FileExtractorImpl} if none does.
+     */
+    public FileExtractor fileExtractorFor(Path file, String extractPattern, Integer expectedMatches) throws IOException {
+        byte[] header = new byte[headerSize];
+        int length;
+        try (InputStream in = Files.newInputStream(file)) {
+            length = ArchiveFormat.readHeader(in, header);
+        }
+        if (length > 0 && providersByFirstByte[header[0] & 0xFF] != null) {
+            for (FileExtractorProvider provider : providersByFirstByte[header[0] & 0xFF]) {
+                if (ArchiveFormat.startsWith(header, length, 0, provider.getMagicBytes())) {
+                    return provider.createFileExtractor(extractPattern, expectedMatches);
+                }
+            }
+        }
+        return new FileExtractorImpl(extractPattern, expectedMatches).withFormatOfContent(file, ArchiveFormat.detect(header, length));
+    }
+}
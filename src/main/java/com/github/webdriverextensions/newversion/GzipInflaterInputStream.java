@@ -0,0 +1,77 @@
+package com.github.webdriverextensions.newversion;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Decompresses gzip data (RFC 1952). Concatenated members are decompressed
+ * one after the other. Anything following the last member that is not a
+ * gzip member is ignored.
+ */
+class GzipInflaterInputStream extends PooledInflaterInputStream {
+
+    private static final int MAGIC_1 = 0x1F;
+    private static final int MAGIC_2 = 0x8B;
+    private static final int DEFLATE = 8;
+    private static final int FLAG_HEADER_CRC = 0x02;
+    private static final int FLAG_EXTRA = 0x04;
+    private static final int FLAG_NAME = 0x08;
+    private static final int FLAG_COMMENT = 0x10;
+
+    GzipInflaterInputStream(InputStream source) {
+        super(source);
+    }
+
+    @Override
+    protected boolean startStream(boolean first) throws IOException {
+        if (!first && !hasMoreInput()) {
+            return false;
+        }
+        if (readUnsignedByte() != MAGIC_1 || readUnsignedByte() != MAGIC_2) {
+            if (first) {
+                throw new ZipException("Input is not in the gzip format");
+            }
+            return false;
+        }
+        if (readUnsignedByte() != DEFLATE) {
+            throw new ZipException("Unsupported gzip compression method");
+        }
+        int flags = readUnsignedByte();
+        // modification time, extra flags and operating system
+        for (int i = 0; i < 6; i++) {
+            readUnsignedByte();
+        }
+        if ((flags & FLAG_EXTRA) != 0) {
+            for (int length = readUnsignedShort(); length > 0; length--) {
+                readUnsignedByte();
+            }
+        }
+        if ((flags & FLAG_NAME) != 0) {
+            skipZeroTerminated();
+        }
+        if ((flags & FLAG_COMMENT) != 0) {
+            skipZeroTerminated();
+        }
+        if ((flags & FLAG_HEADER_CRC) != 0) {
+            readUnsignedShort();
+        }
+        return true;
+    }
+
+    @Override
+    protected void endStream(long inflatedSize) throws IOException {
+        if (readUnsignedInt() != crc.getValue()) {
+            throw new ZipException("Corrupt gzip data: CRC mismatch");
+        }
+        if (readUnsignedInt() != (inflatedSize & 0xFFFFFFFFL)) {
+            throw new ZipException("Corrupt gzip data: size mismatch");
+        }
+    }
+
+    private void skipZeroTerminated() throws IOException {
+        while (readUnsignedByte() != 0) {
+            // skip
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.github.webdriverextensions.newversion;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Inflater;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Keeps a few {@link Inflater}s for raw deflate data, so that their native
+ * state does not need to be allocated and freed for every entry.
+ */
+@UtilityClass
+class InflaterPool {
+
+    private static final BlockingQueue<Inflater> INFLATERS = new ArrayBlockingQueue<>(16);
+
+    static Inflater acquire() {
+        Inflater inflater = INFLATERS.poll();
+        return inflater != null ? inflater : new Inflater(true);
+    }
+
+    static void release(Inflater inflater) {
+        inflater.reset();
+        if (!INFLATERS.offer(inflater)) {
+            inflater.end();
+        }
+    }
+}
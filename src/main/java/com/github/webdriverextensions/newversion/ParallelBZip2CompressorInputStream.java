@@ -0,0 +1,211 @@
+package com.github.webdriverextensions.newversion;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+
+/**
+ * Decompresses a bzip2 file by decoding its blocks on several threads.
+ * <p>
+ * bzip2 compresses every block independently. The blocks are not byte
+ * aligned and there is no index, so the file is scanned for the 48 bit block
+ * and end of stream markers first. Each block is then decoded by wrapping its
+ * bits into a stream of its own. A marker may also occur by chance inside the
+ * compressed data. The block before it then fails to decode and is decoded
+ * again together with the next one. Concatenated streams are decompressed
+ * one after the other.
+ */
+class ParallelBZip2CompressorInputStream extends ParallelBlockInputStream {
+
+    private static final long BLOCK_MAGIC = 0x314159265359L;
+    private static final long END_OF_STREAM_MAGIC = 0x177245385090L;
+    private static final long MAGIC_MASK = (1L << 48) - 1;
+    private static final int MAGIC_BITS = 48;
+    private static final int CRC_BITS = 32;
+    /**
+     * the header of the stream every block is wrapped into. the largest block
+     * size is used, since the original block size is not known.
+     */
+    private static final byte[] HEADER = {'B', 'Z', 'h', '9'};
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final long[] blockStarts;
+    private final long[] blockEnds;
+
+    ParallelBZip2CompressorInputStream(Path file, int parallelism) throws IOException {
+        super(parallelism);
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            checkHeader();
+            List<long[]> blocks = findBlocks();
+            this.blockStarts = blocks.stream().mapToLong(block -> block[0]).toArray();
+            this.blockEnds = blocks.stream().mapToLong(block -> block[1]).toArray();
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    protected int blockCount() {
+        return blockStarts.length;
+    }
+
+    @Override
+    protected byte[] decode(int firstBlock, int endBlock) throws IOException {
+        long fromBit = blockStarts[firstBlock];
+        long toBit = blockEnds[endBlock - 1];
+        long firstByte = fromBit >>> 3;
+        // one more byte than needed, so that copying can always read the next byte
+        byte[] source = read(firstByte, (int) (((toBit + 7) >>> 3) - firstByte + 1));
+        int sourceOffset = (int) (fromBit & 7);
+        long bits = toBit - fromBit;
+
+        byte[] stream = new byte[HEADER.length + (int) ((bits + MAGIC_BITS + CRC_BITS + 7) >>> 3)];
+        System.arraycopy(HEADER, 0, stream, 0, HEADER.length);
+        copyBits(source, sourceOffset, bits, stream, HEADER.length);
+        long crc = readBits(source, sourceOffset + MAGIC_BITS, CRC_BITS);
+        long endOfStream = HEADER.length * 8L + bits;
+        writeBits(stream, endOfStream, END_OF_STREAM_MAGIC, MAGIC_BITS);
+        // the combined crc of a stream with a single block equals the crc of that block
+        writeBits(stream, endOfStream + MAGIC_BITS, crc, CRC_BITS);
+
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream(1024 * 1024);
+        try (BZip2CompressorInputStream bzip2 = new BZip2CompressorInputStream(new ByteArrayInputStream(stream))) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            for (int count = bzip2.read(buffer); count != -1; count = bzip2.read(buffer)) {
+                decoded.write(buffer, 0, count);
+            }
+        }
+        return decoded.toByteArray();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void checkHeader() throws IOException {
+        byte[] header = read(0, HEADER.length);
+        if (header[0] != 'B' || header[1] != 'Z' || header[2] != 'h' || header[3] < '1' || header[3] > '9') {
+            throw new IOException("Stream is not in the BZip2 format");
+        }
+    }
+
+    /**
+     * @return the start and end bit of every block. a block ends where the
+     * next block or the end of stream marker starts.
+     */
+    private List<long[]> findBlocks() throws IOException {
+        List<long[]> blocks = new ArrayList<>();
+        long blockStart = -1;
+        long window = 0;
+        long bytePosition = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        while (channel.read(buffer, bytePosition) != -1) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                window = (window << 8) | (buffer.get() & 0xFF);
+                bytePosition++;
+                if (bytePosition < 7) {
+                    continue;
+                }
+                // the window holds at least 56 bits, check every marker ending in the last byte
+                for (int shift = 7; shift >= 0; shift--) {
+                    long candidate = (window >>> shift) & MAGIC_MASK;
+                    long markerStart = bytePosition * 8 - shift - MAGIC_BITS;
+                    if (candidate == BLOCK_MAGIC || candidate == END_OF_STREAM_MAGIC && isEndOfStream(markerStart)) {
+                        if (blockStart >= 0) {
+                            blocks.add(new long[]{blockStart, markerStart});
+                        }
+                        blockStart = candidate == BLOCK_MAGIC ? markerStart : -1;
+                    }
+                }
+            }
+            buffer.clear();
+        }
+        if (blockStart >= 0) {
+            // truncated. let decoding the last block report it.
+            blocks.add(new long[]{blockStart, bytePosition * 8});
+        }
+        return blocks;
+    }
+
+    /**
+     * an end of stream marker is followed by the combined crc and padding to
+     * the next byte. the file must end there or the next stream must start.
+     */
+    private boolean isEndOfStream(long markerStart) throws IOException {
+        long nextStream = (markerStart + MAGIC_BITS + CRC_BITS + 7) >>> 3;
+        long size = channel.size();
+        if (nextStream >= size) {
+            return nextStream == size;
+        }
+        if (size - nextStream < HEADER.length + MAGIC_BITS / 8) {
+            return false;
+        }
+        byte[] next = read(nextStream, HEADER.length + MAGIC_BITS / 8);
+        if (next[0] != 'B' || next[1] != 'Z' || next[2] != 'h' || next[3] < '1' || next[3] > '9') {
+            return false;
+        }
+        long magic = readBits(next, HEADER.length * 8L, MAGIC_BITS);
+        return magic == BLOCK_MAGIC || magic == END_OF_STREAM_MAGIC;
+    }
+
+    private byte[] read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            int count = channel.read(buffer, position + buffer.position());
+            if (count == -1) {
+                if (buffer.position() < length - 1) {
+                    throw new EOFException("Unexpected end of bzip2 file");
+                }
+                // only the extra byte is missing
+                break;
+            }
+        }
+        return buffer.array();
+    }
+
+    private static void copyBits(byte[] source, int sourceBitOffset, long bits, byte[] target, int targetOffset) {
+        int bytes = (int) ((bits + 7) >>> 3);
+        for (int i = 0; i < bytes; i++) {
+            int b = source[i] << sourceBitOffset | (source[i + 1] & 0xFF) >>> (8 - sourceBitOffset);
+            target[targetOffset + i] = (byte) b;
+        }
+        int unusedBits = (int) (bytes * 8L - bits);
+        if (bytes > 0) {
+            target[targetOffset + bytes - 1] &= (byte) (0xFF << unusedBits);
+        }
+    }
+
+    private static long readBits(byte[] source, long bitPosition, int bits) {
+        long value = 0;
+        for (long bit = bitPosition; bit < bitPosition + bits; bit++) {
+            value = (value << 1) | ((source[(int) (bit >>> 3)] >>> (7 - (bit & 7))) & 1);
+        }
+        return value;
+    }
+
+    private static void writeBits(byte[] target, long bitPosition, long value, int bits) {
+        for (int i = 0; i < bits; i++) {
+            if ((value >>> (bits - 1 - i) & 1) != 0) {
+                long bit = bitPosition + i;
+                target[(int) (bit >>> 3)] |= (byte) (0x80 >>> (bit & 7));
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.github.webdriverextensions.newversion;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * An {@link InputStream} over data that is split into independently
+ * decodable blocks. The blocks are decoded on several threads and their
+ * content is returned in order. At most a few blocks are decoded ahead of
+ * the reader, so memory stays bounded.
+ * <p>
+ * A block that cannot be decoded on its own is decoded again together with
+ * the following blocks, since some formats can only find their block
+ * boundaries heuristically.
+ */
+abstract class ParallelBlockInputStream extends InputStream {
+
+    private static final byte[] EMPTY = new byte[0];
+    private static final int MAX_MERGED_BLOCKS = 3;
+
+    private final ExecutorService executor;
+    private final int lookahead;
+    private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+    private int nextBlockToSubmit;
+    private int nextBlockToRead;
+    private byte[] current = EMPTY;
+    private int position;
+
+    ParallelBlockInputStream(int parallelism) {
+        this(parallelism, 2 * parallelism);
+    }
+
+    /**
+     * @param lookahead the maximum number of blocks decoded ahead of the
+     * reader
+     */
+    ParallelBlockInputStream(int parallelism, int lookahead) {
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "webdriverextensions-decompress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.lookahead = lookahead;
+    }
+
+    /**
+     * @return the number of blocks
+     */
+    protected abstract int blockCount();
+
+    /**
+     * decodes the blocks from {@code firstBlock} (inclusive) to
+     * {@code endBlock} (exclusive) as a whole. must be thread safe.
+     */
+    protected abstract byte[] decode(int firstBlock, int endBlock) throws IOException;
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return current[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int count = Math.min(length, current.length - position);
+        System.arraycopy(current, position, buffer, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return current.length - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        executor.shutdownNow();
+    }
+
+    private boolean fill() throws IOException {
+        while (position == current.length) {
+            if (nextBlockToRead == blockCount()) {
+                return false;
+            }
+            submitAhead();
+            int block = nextBlockToRead++;
+            try {
+                current = pending.removeFirst().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while decoding block " + block);
+            } catch (ExecutionException e) {
+                current = decodeMerged(block, e.getCause());
+            }
+            position = 0;
+        }
+        return true;
+    }
+
+    private void submitAhead() {
+        while (nextBlockToSubmit < blockCount() && pending.size() < lookahead) {
+            int block = nextBlockToSubmit++;
+            pending.addLast(executor.submit(() -> decode(block, block + 1)));
+        }
+    }
+
+    private byte[] decodeMerged(int block, Throwable failure) throws IOException {
+        for (int endBlock = block + 2; endBlock <= Math.min(blockCount(), block + MAX_MERGED_BLOCKS); endBlock++) {
+            skipBlock();
+            try {
+                return decode(block, endBlock);
+            } catch (IOException | RuntimeException e) {
+                failure.addSuppressed(e);
+            }
+        }
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        throw new IOException("Failed to decode block " + block, failure);
+    }
+
+    private void skipBlock() {
+        if (pending.isEmpty()) {
+            nextBlockToSubmit++;
+        } else {
+            pending.removeFirst().cancel(true);
+        }
+        nextBlockToRead++;
+    }
+}
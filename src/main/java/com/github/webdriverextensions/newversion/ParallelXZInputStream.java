@@ -0,0 +1,78 @@
+package com.github.webdriverextensions.newversion;
+
+import java.io.File;
+import java.io.IOException;
+import org.tukaani.xz.SeekableFileInputStream;
+import org.tukaani.xz.SeekableXZInputStream;
+
+/**
+ * Decompresses an xz file by decoding its blocks on several threads.
+ * <p>
+ * xz files written by multi-threaded encoders consist of several blocks that
+ * are listed in the index at the end of the file, together with their
+ * uncompressed sizes. Each block is decoded by a {@link SeekableXZInputStream}
+ * of its own that is positioned at the start of the block.
+ */
+class ParallelXZInputStream extends ParallelBlockInputStream {
+
+    private final File file;
+    private final long[] blockSizes;
+
+    private ParallelXZInputStream(File file, long[] blockSizes, int parallelism) {
+        // blocks are usually several megabytes, so only decode as many blocks ahead as there are threads
+        super(parallelism, parallelism);
+        this.file = file;
+        this.blockSizes = blockSizes;
+    }
+
+    /**
+     * @return a stream decoding the blocks of the given xz file in parallel or
+     * {@code null} if the file consists of a single block or of blocks too
+     * large to be kept in memory
+     */
+    static ParallelXZInputStream open(File file, int parallelism, long maxBlockSize) throws IOException {
+        try (SeekableXZInputStream xz = new SeekableXZInputStream(new SeekableFileInputStream(file))) {
+            int blockCount = xz.getBlockCount();
+            if (blockCount < 2) {
+                return null;
+            }
+            long[] blockSizes = new long[blockCount];
+            for (int block = 0; block < blockCount; block++) {
+                blockSizes[block] = xz.getBlockSize(block);
+                if (blockSizes[block] > maxBlockSize) {
+                    return null;
+                }
+            }
+            return new ParallelXZInputStream(file, blockSizes, parallelism);
+        }
+    }
+
+    @Override
+    protected int blockCount() {
+        return blockSizes.length;
+    }
+
+    @Override
+    protected byte[] decode(int firstBlock, int endBlock) throws IOException {
+        long size = 0;
+        for (int block = firstBlock; block < endBlock; block++) {
+            size += blockSizes[block];
+        }
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IOException("Blocks " + firstBlock + " to " + (endBlock - 1) + " of " + file + " are too large");
+        }
+        byte[] decoded = new byte[(int) size];
+        try (SeekableXZInputStream xz = new SeekableXZInputStream(new SeekableFileInputStream(file))) {
+            xz.seekToBlock(firstBlock);
+            int position = 0;
+            while (position < decoded.length) {
+                int count = xz.read(decoded, position, decoded.length - position);
+                if (count == -1) {
+                    throw new IOException("Unexpected end of block " + firstBlock + " of " + file);
+                }
+                position += count;
+            }
+        }
+        return decoded;
+    }
+}
@@ -0,0 +1,256 @@
+package com.github.webdriverextensions.newversion;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.FileTime;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes files on a thread of its own, so that reading (and decompressing)
+ * the content of the next file overlaps with writing the previous one.
+ * <p>
+ * The content is passed to the writer thread in a ring of buffers taken from
+ * {@link BufferPool}. The reading thread blocks if all buffers are waiting to
+ * be written. A failure of the writer thread is rethrown by the next call of
+ * {@link #write(InputStream, Path, FileTime, FileAttribute...)} or by
+ * {@link #close()}. Should the writer thread terminate nevertheless, the
+ * reading thread fails instead of waiting for it forever.
+ */
+class PipelinedFileWriter implements Closeable {
+
+    private static final int BUFFERS = 4;
+    /**
+     * how often the reading thread checks if the writer thread is still alive
+     * while it waits for it
+     */
+    private static final long WRITER_CHECK_MILLIS = 100;
+    private static final Set<StandardOpenOption> CREATE_NEW_FILE = EnumSet.of(StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+
+    private final BlockingQueue<byte[]> freeBuffers = new ArrayBlockingQueue<>(BUFFERS);
+    private final BlockingQueue<Chunk> chunks = new ArrayBlockingQueue<>(BUFFERS + 2);
+    private final Thread writer;
+    private volatile Throwable failure;
+    private boolean closed;
+
+    PipelinedFileWriter() {
+        for (int i = 0; i < BUFFERS; i++) {
+            freeBuffers.add(BufferPool.acquire());
+        }
+        writer = new Thread(this::writeChunks, "webdriverextensions-write");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * reads {@code in} to its end and writes it to the new file {@code target}
+     * created with the given {@code attributes} asynchronously
+     *
+     * @param lastModifiedTime the modification time of the written file. not
+     * set if null.
+     */
+    void write(InputStream in, Path target, FileTime lastModifiedTime, FileAttribute<?>... attributes) throws IOException {
+        checkFailure();
+        put(new Chunk(target, lastModifiedTime, attributes));
+        try {
+            while (true) {
+                byte[] buffer = takeFreeBuffer();
+                int length = 0;
+                boolean queued = false;
+                try {
+                    length = readFully(in, buffer);
+                    if (length > 0) {
+                        put(new Chunk(buffer, length));
+                        queued = true;
+                    }
+                } finally {
+                    if (!queued) {
+                        // also if reading failed, so that the buffer is released by close()
+                        freeBuffers.add(buffer);
+                    }
+                }
+                if (length < buffer.length) {
+                    break;
+                }
+            }
+        } finally {
+            // closes the file, even if it is incomplete
+            put(Chunk.END_OF_FILE);
+        }
+    }
+
+    /**
+     * waits until all files are written
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            put(Chunk.END_OF_FILES);
+            writer.join();
+        } catch (InterruptedException e) {
+            writer.interrupt();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing files");
+        } finally {
+            if (!writer.isAlive()) {
+                // the buffers of chunks a terminated writer thread left behind
+                for (Chunk chunk = chunks.poll(); chunk != null; chunk = chunks.poll()) {
+                    if (chunk.buffer != null) {
+                        freeBuffers.add(chunk.buffer);
+                    }
+                }
+            }
+            for (byte[] buffer = freeBuffers.poll(); buffer != null; buffer = freeBuffers.poll()) {
+                BufferPool.release(buffer);
+            }
+        }
+        checkFailure();
+    }
+
+    private void writeChunks() {
+        FileChannel out = null;
+        Path target = null;
+        FileTime lastModifiedTime = null;
+        try {
+            for (Chunk chunk = chunks.take(); chunk != Chunk.END_OF_FILES; chunk = chunks.take()) {
+                try {
+                    if (failure != null) {
+                        // keep draining, so that the reading thread does not block
+                    } else if (chunk.target != null) {
+                        target = chunk.target;
+                        lastModifiedTime = chunk.lastModifiedTime;
+                        out = FileChannel.open(target, CREATE_NEW_FILE, chunk.attributes);
+                    } else if (chunk == Chunk.END_OF_FILE) {
+                        out.close();
+                        out = null;
+                        if (lastModifiedTime != null) {
+                            Files.setLastModifiedTime(target, lastModifiedTime);
+                        }
+                    } else {
+                        ByteBuffer content = ByteBuffer.wrap(chunk.buffer, 0, chunk.length);
+                        while (content.hasRemaining()) {
+                            out.write(content);
+                        }
+                    }
+                } catch (Throwable e) {
+                    // also errors, e.g. OutOfMemoryError, so that the reading thread is not left waiting
+                    failure = e;
+                    closeQuietly(out);
+                    out = null;
+                } finally {
+                    if (chunk.buffer != null) {
+                        freeBuffers.add(chunk.buffer);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            failure = new InterruptedIOException("Interrupted while writing " + target);
+        } catch (Throwable e) {
+            failure = e;
+        } finally {
+            closeQuietly(out);
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        Throwable e = failure;
+        if (e != null) {
+            throw new IOException("Failed to write file", e);
+        }
+    }
+
+    private void checkWriterAlive() throws IOException {
+        if (!writer.isAlive()) {
+            throw new IOException("Writer thread terminated before all files were written", failure);
+        }
+    }
+
+    private void put(Chunk chunk) throws IOException {
+        try {
+            while (!chunks.offer(chunk, WRITER_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                checkWriterAlive();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing files");
+        }
+    }
+
+    private byte[] takeFreeBuffer() throws IOException {
+        try {
+            byte[] buffer = freeBuffers.poll(WRITER_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+            while (buffer == null) {
+                checkWriterAlive();
+                buffer = freeBuffers.poll(WRITER_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            return buffer;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing files");
+        }
+    }
+
+    private static int readFully(InputStream in, byte[] buffer) throws IOException {
+        int length = 0;
+        while (length < buffer.length) {
+            int count = in.read(buffer, length, buffer.length - length);
+            if (count == -1) {
+                break;
+            }
+            length += count;
+        }
+        return length;
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // already failed
+            }
+        }
+    }
+
+    private static class Chunk {
+        private static final Chunk END_OF_FILE = new Chunk(null, 0);
+        private static final Chunk END_OF_FILES = new Chunk(null, 0);
+
+        private final Path target;
+        private final FileTime lastModifiedTime;
+        private final FileAttribute<?>[] attributes;
+        private final byte[] buffer;
+        private final int length;
+
+        Chunk(Path target, FileTime lastModifiedTime, FileAttribute<?>[] attributes) {
+            this.target = target;
+            this.lastModifiedTime = lastModifiedTime;
+            this.attributes = attributes;
+            this.buffer = null;
+            this.length = 0;
+        }
+
+        Chunk(byte[] buffer, int length) {
+            this.target = null;
+            this.lastModifiedTime = null;
+            this.attributes = null;
+            this.buffer = buffer;
+            this.length = length;
+        }
+    }
+}
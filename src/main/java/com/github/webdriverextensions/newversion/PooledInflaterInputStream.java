@@ -0,0 +1,149 @@
+package com.github.webdriverextensions.newversion;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Inflates raw deflate data with an {@link Inflater} and an input buffer
+ * taken from {@link InflaterPool} and {@link BufferPool}. Subclasses read the
+ * framing around the deflate data, e.g. the gzip header and trailer.
+ */
+abstract class PooledInflaterInputStream extends InputStream {
+
+    private final InputStream source;
+    /**
+     * reused by {@link #read()}, like in {@link java.util.zip.InflaterInputStream}
+     */
+    private final byte[] single = new byte[1];
+    private byte[] buffer = BufferPool.acquire();
+    private Inflater inflater = InflaterPool.acquire();
+    private int position;
+    private int limit;
+    private boolean inflating;
+    private boolean started;
+    private boolean finished;
+
+    /**
+     * the crc of the data inflated from the current deflate stream
+     */
+    protected final CRC32 crc = new CRC32();
+
+    PooledInflaterInputStream(InputStream source) {
+        this.source = source;
+    }
+
+    /**
+     * reads what precedes a deflate stream
+     *
+     * @param first if it is the first deflate stream
+     * @return if there is another deflate stream
+     */
+    protected abstract boolean startStream(boolean first) throws IOException;
+
+    /**
+     * reads and checks what follows a deflate stream
+     *
+     * @param inflatedSize the number of bytes inflated from the deflate stream
+     */
+    protected abstract void endStream(long inflatedSize) throws IOException;
+
+    @Override
+    public int read() throws IOException {
+        return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] target, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        while (true) {
+            if (!inflating) {
+                if (finished || !startStream(!started)) {
+                    finished = true;
+                    return -1;
+                }
+                started = true;
+                inflating = true;
+                inflater.reset();
+                crc.reset();
+                inflater.setInput(buffer, position, limit - position);
+            }
+            int count;
+            try {
+                count = inflater.inflate(target, offset, length);
+            } catch (DataFormatException e) {
+                throw new ZipException("Invalid deflate data: " + e.getMessage());
+            }
+            if (count > 0) {
+                crc.update(target, offset, count);
+                return count;
+            }
+            if (inflater.finished()) {
+                position = limit - inflater.getRemaining();
+                inflating = false;
+                endStream(inflater.getBytesWritten());
+            } else if (inflater.needsDictionary()) {
+                throw new ZipException("Deflate data with preset dictionary is not supported");
+            } else if (inflater.needsInput()) {
+                if (!fill()) {
+                    throw new EOFException("Unexpected end of deflate data");
+                }
+                inflater.setInput(buffer, position, limit - position);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            source.close();
+        } finally {
+            if (inflater != null) {
+                InflaterPool.release(inflater);
+                BufferPool.release(buffer);
+                inflater = null;
+                buffer = null;
+            }
+        }
+    }
+
+    /**
+     * @return if there is more input after the current deflate stream
+     */
+    protected boolean hasMoreInput() throws IOException {
+        return position < limit || fill();
+    }
+
+    protected int readUnsignedByte() throws IOException {
+        if (!hasMoreInput()) {
+            throw new EOFException("Unexpected end of data");
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    protected int readUnsignedShort() throws IOException {
+        return readUnsignedByte() | readUnsignedByte() << 8;
+    }
+
+    protected long readUnsignedInt() throws IOException {
+        return readUnsignedShort() | (long) readUnsignedShort() << 16;
+    }
+
+    private boolean fill() throws IOException {
+        int count = source.read(buffer, 0, buffer.length);
+        if (count <= 0) {
+            position = 0;
+            limit = 0;
+            return false;
+        }
+        position = 0;
+        limit = count;
+        return true;
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.webdriverextensions.newversion;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.ZipException;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+
+/**
+ * Inflates the raw data of a deflated zip entry and checks it against the
+ * crc and size recorded for the entry.
+ */
+class ZipEntryInflaterInputStream extends PooledInflaterInputStream {
+
+    private final ZipArchiveEntry entry;
+
+    ZipEntryInflaterInputStream(InputStream rawEntryData, ZipArchiveEntry entry) {
+        super(rawEntryData);
+        this.entry = entry;
+    }
+
+    @Override
+    protected boolean startStream(boolean first) {
+        return first;
+    }
+
+    @Override
+    protected void endStream(long inflatedSize) throws IOException {
+        if (entry.getCrc() != -1 && entry.getCrc() != crc.getValue()) {
+            throw new ZipException("Corrupt zip entry " + entry.getName() + ": CRC mismatch");
+        }
+        if (entry.getSize() != -1 && entry.getSize() != inflatedSize) {
+            throw new ZipException("Corrupt zip entry " + entry.getName() + ": size mismatch");
+        }
+    }
+}
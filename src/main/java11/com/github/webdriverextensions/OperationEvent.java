@@ -0,0 +1,143 @@
+package com.github.webdriverextensions;
+
+import java.nio.file.Path;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Records an operation of the plugin as Java Flight Recorder event, so that
+ * its work shows up in recordings of the build. Replaces the implementation
+ * for Java 8 on Java 11 and later.
+ * <p>
+ * If the event of an operation is not enabled, the shared disabled instance
+ * is returned and nothing is recorded.
+ */
+class OperationEvent {
+
+    enum Type {
+        REPOSITORY_LOAD,
+        DOWNLOAD,
+        EXTRACT,
+        INSTALL
+    }
+
+    private static final OperationEvent DISABLED = new OperationEvent(null);
+
+    private final DriverOperation event;
+
+    private OperationEvent(DriverOperation event) {
+        this.event = event;
+    }
+
+    static OperationEvent begin(Type type) {
+        DriverOperation event = create(type);
+        if (!event.isEnabled()) {
+            return DISABLED;
+        }
+        event.begin();
+        return new OperationEvent(event);
+    }
+
+    OperationEvent driver(Driver driver) {
+        if (event != null) {
+            event.driverId = driver.getId();
+            event.driverVersion = driver.getVersion();
+        }
+        return this;
+    }
+
+    OperationEvent bytes(long bytes) {
+        if (event != null) {
+            event.bytes = bytes;
+        }
+        return this;
+    }
+
+    /**
+     * sets the bytes to the size of {@code file}, which is only determined if
+     * the event is recorded
+     */
+    OperationEvent bytesOf(Path file) {
+        if (event != null) {
+            event.bytes = file.toFile().length();
+        }
+        return this;
+    }
+
+    OperationEvent cacheStatus(String cacheStatus) {
+        if (event != null) {
+            event.cacheStatus = cacheStatus;
+        }
+        return this;
+    }
+
+    void end() {
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.commit();
+            }
+        }
+    }
+
+    private static DriverOperation create(Type type) {
+        switch (type) {
+            case REPOSITORY_LOAD:
+                return new RepositoryLoad();
+            case DOWNLOAD:
+                return new Download();
+            case EXTRACT:
+                return new Extract();
+            default:
+                return new Install();
+        }
+    }
+
+    @Category("WebDriver Extensions")
+    @StackTrace(false)
+    abstract static class DriverOperation extends Event {
+
+        @Label("Driver")
+        String driverId;
+
+        @Label("Driver Version")
+        String driverVersion;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Label("Cache Status")
+        @Description("hit if the result was taken from a cache, miss otherwise")
+        String cacheStatus;
+    }
+
+    @Name("com.github.webdriverextensions.RepositoryLoad")
+    @Label("Repository Load")
+    @Description("Loading the drivers repository")
+    static class RepositoryLoad extends DriverOperation {
+    }
+
+    @Name("com.github.webdriverextensions.Download")
+    @Label("Driver Download")
+    @Description("Downloading a driver, bytes is the size of the download")
+    static class Download extends DriverOperation {
+    }
+
+    @Name("com.github.webdriverextensions.Extract")
+    @Label("Driver Extraction")
+    @Description("Extracting a downloaded driver, bytes is the size of the archive")
+    static class Extract extends DriverOperation {
+    }
+
+    @Name("com.github.webdriverextensions.Install")
+    @Label("Driver Installation")
+    @Description("Installing an extracted driver into the installation directory")
+    static class Install extends DriverOperation {
+    }
+}
@@ -150,7 +150,8 @@ public abstract class AbstractInstallDriversMojoTest extends AbstractMojoTestCas
     }
 
     void assertNumberOfInstalledDriverIs(int numberOfDrivers) {
-        int length = mojo.installationDirectory.listFiles().length;
+        // without the trees directory drivers are installed into
+        int length = mojo.installationDirectory.list((directory, name) -> !name.startsWith(".")).length;
         if (length != numberOfDrivers * 2) {
             fail("Number of drivers installed is not " + numberOfDrivers + ", it is " + (length / 2)
                  + System.lineSeparator() + directoryToString(mojo.installationDirectory.toPath()));
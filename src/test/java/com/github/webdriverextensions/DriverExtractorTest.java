@@ -0,0 +1,54 @@
+package com.github.webdriverextensions;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DriverExtractorTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Mock
+    private Log log;
+
+    @Test
+    public void jarDownloadShouldBeInstalledUnchanged() throws Exception {
+        // Given
+        Path jar = tempFolder.newFolder("downloads").toPath().resolve("testdriver.jar");
+        try (ZipArchiveOutputStream jarOutput = new ZipArchiveOutputStream(jar.toFile())) {
+            jarOutput.putArchiveEntry(new ZipArchiveEntry("META-INF/MANIFEST.MF"));
+            jarOutput.write("Manifest-Version: 1.0\n".getBytes(StandardCharsets.UTF_8));
+            jarOutput.closeArchiveEntry();
+        }
+        byte[] jarContent = Files.readAllBytes(jar);
+        Path installationDirectory = tempFolder.getRoot().toPath().resolve("drivers");
+        Driver driver = new Driver();
+        driver.setName("testdriver");
+        driver.setPlatform("linux");
+        driver.setBit("64");
+        driver.setVersion("1.0");
+        driver.setUrl("https://example.com/testdriver.jar");
+
+        // When
+        Path extractLocation = new DriverExtractor(log, tempFolder.newFolder("temp").toPath()).extractDriver(driver, jar);
+        try (DriverInstaller driverInstaller = new DriverInstaller(log, installationDirectory)) {
+            driverInstaller.install(driver, extractLocation);
+        }
+
+        // Then
+        assertThat(installationDirectory.resolve("testdriver-linux-64bit")).hasBinaryContent(jarContent);
+    }
+}
@@ -0,0 +1,196 @@
+package com.github.webdriverextensions;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DriverGarbageCollectorTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Mock
+    private Log log;
+
+    private Path installationDirectory;
+    private Path versionsDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        installationDirectory = tempFolder.getRoot().toPath().resolve("drivers");
+        versionsDirectory = installationDirectory.resolve(".testdriver-linux-64bit.versions");
+        try (DriverInstaller installer = new DriverInstaller(log, installationDirectory)) {
+            installer.setKeepInstalledVersions(true);
+            for (String version : new String[]{"1.0", "2.0", "3.0", "4.0"}) {
+                installer.install(createDriver(version), createExtractedDirectoryDriver(version));
+            }
+            // the current one, switched back to
+            installer.switchToKeptVersion(createDriver("2.0"));
+        }
+        setLastUsed(versionsDirectory.resolve("1.0"), 10);
+        setLastUsed(versionsDirectory.resolve("3.0"), 5);
+        setLastUsed(versionsDirectory.resolve("4.0"), 1);
+    }
+
+    @Test
+    public void collectShouldRetainCurrentAndMostRecentlyUsedVersions() throws Exception {
+        DriverGarbageCollector uut = new DriverGarbageCollector(log, installationDirectory, 2, 0);
+
+        assertThat(uut.collect()).isEqualTo(2);
+
+        assertThat(versions()).containsExactlyInAnyOrder("2.0", "4.0");
+        assertThat(versionsDirectory.resolve(".1.0.used")).doesNotExist();
+        assertThat(installationDirectory.resolve("testdriver-linux-64bit").resolve("README")).hasContent("2.0");
+    }
+
+    @Test
+    public void collectShouldRetainVersionsUsedWithinKeepDays() throws Exception {
+        DriverGarbageCollector uut = new DriverGarbageCollector(log, installationDirectory, 1, 7);
+
+        uut.collect();
+
+        assertThat(versions()).containsExactlyInAnyOrder("2.0", "3.0", "4.0");
+    }
+
+    @Test
+    public void collectShouldDeleteOrphanedMetadataAndStaleLeftovers() throws Exception {
+        Files.write(installationDirectory.resolve("removeddriver.version"), "{}".getBytes(StandardCharsets.UTF_8));
+        Path staleStaging = Files.createDirectory(installationDirectory.resolve(".otherdriver.staging-0b5a7f1e-4bd0-4c4e-9a4e-1d3b1e2f3a4b"));
+        setLastModified(staleStaging, 1);
+        Path recentStaging = Files.createDirectory(installationDirectory.resolve(".otherdriver.staging-6c0e1a8f-0f4d-4b89-a1a7-5e2c9d9e0f11"));
+        Path ownFile = Files.write(installationDirectory.resolve(".gitignore"), "*".getBytes(StandardCharsets.UTF_8));
+        setLastModified(ownFile, 1);
+        DriverGarbageCollector uut = new DriverGarbageCollector(log, installationDirectory, 10, 0);
+
+        uut.collect();
+
+        assertThat(installationDirectory.resolve("removeddriver.version")).doesNotExist();
+        assertThat(staleStaging).doesNotExist();
+        assertThat(recentStaging).exists();
+        assertThat(ownFile).exists();
+        assertThat(installationDirectory.resolve("testdriver-linux-64bit.version")).exists();
+        assertThat(versions()).hasSize(4);
+    }
+
+    @Test
+    public void collectShouldDeleteStaleTreesThatAreNotLinked() throws Exception {
+        Path otherInstallationDirectory = tempFolder.newFolder().toPath();
+        Driver driver = createDriver("1.0");
+        try (DriverInstaller installer = new DriverInstaller(log, otherInstallationDirectory)) {
+            installer.install(driver, createExtractedDirectoryDriver("1.0"));
+        }
+        Path installedDriver = otherInstallationDirectory.resolve(driver.getId());
+        Path linkedTree = installedDriver.resolveSibling(Files.readSymbolicLink(installedDriver));
+        setLastModified(linkedTree, 1);
+        Path staleTree = Files.createDirectory(otherInstallationDirectory.resolve("." + driver.getId() + ".tree-3f2b8c1d-9e4a-4f6b-8d2c-7a1e5b9c0d3e"));
+        setLastModified(staleTree, 1);
+        DriverGarbageCollector uut = new DriverGarbageCollector(log, otherInstallationDirectory, 10, 0);
+
+        uut.collect();
+
+        assertThat(staleTree).doesNotExist();
+        assertThat(installedDriver.resolve("README")).hasContent("1.0");
+    }
+
+    @Test
+    public void collectShouldRetainCurrentVersionIfInstallationDirectoryIsNotNormalized() throws Exception {
+        Path otherInstallationDirectory = tempFolder.newFolder("project").toPath().resolve("..").resolve("other-drivers");
+        Path otherVersionsDirectory = otherInstallationDirectory.resolve(".testdriver-linux-64bit.versions");
+        try (DriverInstaller installer = new DriverInstaller(log, otherInstallationDirectory)) {
+            installer.setKeepInstalledVersions(true);
+            installer.install(createDriver("1.0"), createExtractedDirectoryDriver("1.0"));
+            installer.install(createDriver("2.0"), createExtractedDirectoryDriver("2.0"));
+            installer.switchToKeptVersion(createDriver("1.0"));
+        }
+        // used by another build more recently than the current one
+        setLastUsed(otherVersionsDirectory.resolve("1.0"), 2);
+        setLastUsed(otherVersionsDirectory.resolve("2.0"), 1);
+        DriverGarbageCollector uut = new DriverGarbageCollector(log, otherInstallationDirectory, 1, 0);
+
+        uut.collect();
+
+        assertThat(otherVersionsDirectory.toFile().list((directory, name) -> !name.startsWith("."))).containsExactly("1.0");
+        assertThat(otherInstallationDirectory.resolve("testdriver-linux-64bit").resolve("README")).hasContent("1.0");
+    }
+
+    @Test
+    public void collectShouldWaitForBuildsSwitchingVersions() throws Exception {
+        DriverGarbageCollector uut = new DriverGarbageCollector(log, installationDirectory, 1, 0);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> collection;
+            try (VersionsLock lock = VersionsLock.acquire(versionsDirectory)) {
+                collection = executor.submit(uut::collect);
+
+                Thread.sleep(200);
+                assertThat(collection).isNotDone();
+                assertThat(versions()).hasSize(4);
+            }
+
+            assertThat(collection.get(10, TimeUnit.SECONDS)).isEqualTo(3);
+            assertThat(versions()).containsExactly("2.0");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void collectShouldDeleteUsedMarkersOfDeletedVersions() throws Exception {
+        Path orphanedMarker = Files.write(versionsDirectory.resolve(".0.9.used"), new byte[0]);
+        DriverGarbageCollector uut = new DriverGarbageCollector(log, installationDirectory, 10, 0);
+
+        uut.collect();
+
+        assertThat(orphanedMarker).doesNotExist();
+        assertThat(versionsDirectory.resolve(".1.0.used")).exists();
+    }
+
+    /**
+     * @return the kept versions, without the markers and the lock file
+     */
+    private String[] versions() {
+        return versionsDirectory.toFile().list((directory, name) -> !name.startsWith("."));
+    }
+
+    private void setLastUsed(Path version, int daysAgo) throws IOException {
+        setLastModified(version.resolveSibling("." + version.getFileName() + ".used"), daysAgo);
+    }
+
+    private static void setLastModified(Path path, int daysAgo) throws IOException {
+        Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(daysAgo)));
+    }
+
+    private Driver createDriver(String version) {
+        Driver driver = new Driver();
+        driver.setName("testdriver");
+        driver.setPlatform("linux");
+        driver.setBit("64");
+        driver.setVersion(version);
+        driver.setUrl("https://example.com/testdriver.zip");
+        return driver;
+    }
+
+    private Path createExtractedDirectoryDriver(String content) throws IOException {
+        Path extractLocation = tempFolder.newFolder().toPath();
+        Path driverDirectory = Files.createDirectories(extractLocation.resolve("testdriver"));
+        Files.write(driverDirectory.resolve("README"), content.getBytes(StandardCharsets.UTF_8));
+        return extractLocation;
+    }
+}
@@ -0,0 +1,353 @@
+package com.github.webdriverextensions;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DriverInstallerTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Mock
+    private Log log;
+
+    private Path installationDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        installationDirectory = tempFolder.getRoot().toPath().resolve("drivers");
+    }
+
+    @Test
+    public void installShouldReplaceExistingDirectoryDriverWithoutLeftovers() throws Exception {
+        try (DriverInstaller uut = new DriverInstaller(log, installationDirectory)) {
+            uut.install(createDriver("1.0"), createExtractedDirectoryDriver("old"));
+            uut.install(createDriver("2.0"), createExtractedDirectoryDriver("new"));
+        }
+
+        assertThat(installationDirectory.toFile().list()).containsExactlyInAnyOrder("testdriver-linux-64bit", "testdriver-linux-64bit.version", linkedTree());
+        Path installedDriver = installationDirectory.resolve("testdriver-linux-64bit");
+        assertThat(installedDriver.resolve("README")).hasContent("new");
+        assertThat(installedDriver.resolve("bin").resolve("testdriver")).hasContent("new");
+    }
+
+    @Test
+    public void installShouldReplaceDirectoryInstalledWithoutTreeByLink() throws Exception {
+        // Given
+        Path installedDriver = Files.createDirectories(installationDirectory.resolve("testdriver-linux-64bit"));
+        Files.write(installedDriver.resolve("README"), "old".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        try (DriverInstaller uut = new DriverInstaller(log, installationDirectory)) {
+            uut.install(createDriver("2.0"), createExtractedDirectoryDriver("new"));
+        }
+
+        // Then
+        assertThat(installationDirectory.toFile().list()).containsExactlyInAnyOrder("testdriver-linux-64bit", "testdriver-linux-64bit.version", linkedTree());
+        assertThat(installedDriver.resolve("README")).hasContent("new");
+    }
+
+    @Test
+    public void installShouldDeleteTreeOfReplacedDirectoryDriver() throws Exception {
+        // Given
+        try (DriverInstaller uut = new DriverInstaller(log, installationDirectory)) {
+            uut.install(createDriver("1.0"), createExtractedDirectoryDriver("old"));
+
+            // When
+            uut.install(createDriver("2.0"), createExtractedSingleFileDriver("new"));
+        }
+
+        // Then
+        assertThat(installationDirectory.toFile().list()).containsExactlyInAnyOrder("testdriver-linux-64bit", "testdriver-linux-64bit.version");
+        assertThat(installationDirectory.resolve("testdriver-linux-64bit")).isRegularFile().hasContent("new");
+    }
+
+    @Test
+    public void installShouldReplaceExistingSingleFileDriverWithoutLeftovers() throws Exception {
+        try (DriverInstaller uut = new DriverInstaller(log, installationDirectory)) {
+            uut.install(createDriver("1.0"), createExtractedSingleFileDriver("old"));
+            uut.install(createDriver("2.0"), createExtractedSingleFileDriver("new"));
+        }
+
+        assertThat(installationDirectory.toFile().list()).containsExactlyInAnyOrder("testdriver-linux-64bit", "testdriver-linux-64bit.version");
+        assertThat(installationDirectory.resolve("testdriver-linux-64bit")).hasContent("new").isExecutable();
+    }
+
+    @Test
+    public void installShouldReplaceSingleFileDriverWithDirectoryDriver() throws Exception {
+        try (DriverInstaller uut = new DriverInstaller(log, installationDirectory)) {
+            uut.install(createDriver("1.0"), createExtractedSingleFileDriver("old"));
+            uut.install(createDriver("2.0"), createExtractedDirectoryDriver("new"));
+        }
+
+        assertThat(installationDirectory.toFile().list()).containsExactlyInAnyOrder("testdriver-linux-64bit", "testdriver-linux-64bit.version", linkedTree());
+        assertThat(installationDirectory.resolve("testdriver-linux-64bit").resolve("README")).hasContent("new");
+    }
+
+    @Test
+    public void installWithLinkModeShouldKeepExtractedFiles() throws Exception {
+        Path extractLocation = createExtractedDirectoryDriver("linked");
+        try (DriverInstaller uut = new DriverInstaller(log, installationDirectory)) {
+            uut.setInstallMode(InstallMode.LINK);
+            uut.install(createDriver("1.0"), extractLocation);
+        }
+
+        assertThat(installationDirectory.resolve("testdriver-linux-64bit").resolve("bin").resolve("testdriver")).hasContent("linked");
+        assertThat(extractLocation.resolve("testdriver").resolve("bin").resolve("testdriver")).hasContent("linked");
+    }
+
+    @Test
+    public void installWithCopyModeShouldKeepUnchangedFiles() throws Exception {
+        Path oldExtractLocation = createExtractedDirectoryDriver("same");
+        Path newExtractLocation = createExtractedDirectoryDriver("same");
+        Files.write(newExtractLocation.resolve("testdriver").resolve("bin").resolve("testdriver"), "new".getBytes(StandardCharsets.UTF_8));
+        // same modification time as extracted from the same archive entry
+        FileTime lastModifiedTime = FileTime.fromMillis(1_500_000_000_000L);
+        Files.setLastModifiedTime(oldExtractLocation.resolve("testdriver").resolve("README"), lastModifiedTime);
+        Files.setLastModifiedTime(newExtractLocation.resolve("testdriver").resolve("README"), lastModifiedTime);
+        Path installedDriver = installationDirectory.resolve("testdriver-linux-64bit");
+
+        try (DriverInstaller uut = new DriverInstaller(log, installationDirectory)) {
+            uut.setInstallMode(InstallMode.COPY);
+            uut.install(createDriver("1.0"), oldExtractLocation);
+            Object oldReadmeKey = fileKey(installedDriver.resolve("README"));
+            uut.install(createDriver("2.0"), newExtractLocation);
+
+            assertThat(fileKey(installedDriver.resolve("README"))).isEqualTo(oldReadmeKey);
+        }
+
+        assertThat(installedDriver.resolve("README")).hasContent("same");
+        assertThat(installedDriver.resolve("bin").resolve("testdriver")).hasContent("new");
+        assertThat(installationDirectory.toFile().list()).containsExactlyInAnyOrder("testdriver-linux-64bit", "testdriver-linux-64bit.version", linkedTree());
+    }
+
+    @Test
+    public void installWithCopyModeShouldKeepFilesWithSameContentButOtherModificationTime() throws Exception {
+        Path oldExtractLocation = createExtractedDirectoryDriver("same");
+        Path newExtractLocation = createExtractedDirectoryDriver("same");
+        Files.setLastModifiedTime(newExtractLocation.resolve("testdriver").resolve("README"), FileTime.fromMillis(1_500_000_000_000L));
+        Path installedDriver = installationDirectory.resolve("testdriver-linux-64bit");
+
+        try (DriverInstaller uut = new DriverInstaller(log, installationDirectory)) {
+            uut.setInstallMode(InstallMode.COPY);
+            uut.install(createDriver("1.0"), oldExtractLocation);
+            Object oldReadmeKey = fileKey(installedDriver.resolve("README"));
+            uut.install(createDriver("2.0"), newExtractLocation);
+
+            assertThat(fileKey(installedDriver.resolve("README"))).isEqualTo(oldReadmeKey);
+        }
+    }
+
+    @Test
+    public void installWithCopyModeShouldReplaceChangedFilesWithSameSizeAndModificationTime() throws Exception {
+        Path oldExtractLocation = createExtractedDirectoryDriver("1.0");
+        Path newExtractLocation = createExtractedDirectoryDriver("2.0");
+        // an archive built with fixed timestamps
+        FileTime lastModifiedTime = FileTime.fromMillis(1_500_000_000_000L);
+        Files.setLastModifiedTime(oldExtractLocation.resolve("testdriver").resolve("README"), lastModifiedTime);
+        Files.setLastModifiedTime(newExtractLocation.resolve("testdriver").resolve("README"), lastModifiedTime);
+        Path installedDriver = installationDirectory.resolve("testdriver-linux-64bit");
+
+        try (DriverInstaller uut = new DriverInstaller(log, installationDirectory)) {
+            uut.setInstallMode(InstallMode.COPY);
+            uut.install(createDriver("1.0"), oldExtractLocation);
+            uut.install(createDriver("2.0"), newExtractLocation);
+        }
+
+        assertThat(installedDriver.resolve("README")).hasContent("2.0");
+    }
+
+    @Test
+    public void needInstallationShouldVerifyInstalledFilesIfEnabled() throws Exception {
+        Driver driver = createDriver("1.0");
+        try (DriverInstaller uut = new DriverInstaller(log, installationDirectory)) {
+            uut.setVerifyInstalledDrivers(true);
+            uut.install(driver, createExtractedDirectoryDriver("content"));
+
+            assertThat(uut.needInstallation(driver)).isFalse();
+            Files.write(installationDirectory.resolve("testdriver-linux-64bit").resolve("bin").resolve("testdriver"), new byte[0]);
+            assertThat(uut.needInstallation(driver)).isTrue();
+
+            uut.setVerifyInstalledDrivers(false);
+            assertThat(uut.needInstallation(driver)).isFalse();
+        }
+    }
+
+    @Test
+    public void installWithKeptVersionsShouldSwitchBackByLink() throws Exception {
+        Path installedDriver = installationDirectory.resolve("testdriver-linux-64bit");
+        try (DriverInstaller uut = new DriverInstaller(log, installationDirectory)) {
+            uut.setKeepInstalledVersions(true);
+            uut.install(createDriver("1.0"), createExtractedDirectoryDriver("old"));
+            uut.install(createDriver("2.0"), createExtractedDirectoryDriver("new"));
+
+            assertThat(installedDriver).isSymbolicLink();
+            assertThat(installedDriver.resolve("README")).hasContent("new");
+            assertThat(uut.switchToKeptVersion(createDriver("2.0"))).isFalse();
+            assertThat(uut.switchToKeptVersion(createDriver("3.0"))).isFalse();
+
+            assertThat(uut.switchToKeptVersion(createDriver("1.0"))).isTrue();
+
+            assertThat(installedDriver.resolve("README")).hasContent("old");
+            assertThat(uut.needInstallation(createDriver("1.0"))).isFalse();
+            assertThat(uut.switchToKeptVersion(createDriver("1.0"))).isFalse();
+        }
+
+        assertThat(installationDirectory.toFile().list())
+                .containsExactlyInAnyOrder("testdriver-linux-64bit", "testdriver-linux-64bit.version", ".testdriver-linux-64bit.versions");
+        assertThat(installationDirectory.resolve(".testdriver-linux-64bit.versions").toFile().list())
+                .containsExactlyInAnyOrder("1.0", "2.0", ".1.0.used", ".2.0.used", VersionsLock.LOCK_FILE_NAME);
+    }
+
+    @Test
+    public void installWithKeptVersionsShouldLinkSingleFileDriver() throws Exception {
+        Path installedDriver = installationDirectory.resolve("testdriver-linux-64bit");
+        try (DriverInstaller uut = new DriverInstaller(log, installationDirectory)) {
+            uut.install(createDriver("1.0"), createExtractedSingleFileDriver("not kept"));
+            uut.setKeepInstalledVersions(true);
+            uut.install(createDriver("2.0"), createExtractedSingleFileDriver("new"));
+            uut.install(createDriver("3.0"), createExtractedSingleFileDriver("newer"));
+
+            assertThat(installedDriver).isSymbolicLink().hasContent("newer").isExecutable();
+            assertThat(uut.switchToKeptVersion(createDriver("1.0"))).isFalse();
+            assertThat(uut.switchToKeptVersion(createDriver("2.0"))).isTrue();
+            assertThat(installedDriver).isSymbolicLink().hasContent("new");
+        }
+    }
+
+    @Test
+    public void switchToKeptVersionShouldNotModifyInstalledSingleFileDriver() throws Exception {
+        // Given
+        Driver driver = createDriver("1.0");
+        Path versionsDirectory = installationDirectory.resolve(".testdriver-linux-64bit.versions");
+        FileTime installedTime = FileTime.fromMillis(1_500_000_000_000L);
+        try (DriverInstaller uut = new DriverInstaller(log, installationDirectory)) {
+            uut.setKeepInstalledVersions(true);
+            uut.setVerifyInstalledDrivers(true);
+            uut.install(driver, createExtractedSingleFileDriver("content"));
+            Files.setLastModifiedTime(versionsDirectory.resolve("1.0"), installedTime);
+            Files.setLastModifiedTime(versionsDirectory.resolve(".1.0.used"), installedTime);
+
+            // When
+            assertThat(uut.switchToKeptVersion(driver)).isFalse();
+
+            // Then
+            assertThat(Files.getLastModifiedTime(versionsDirectory.resolve("1.0"))).isEqualTo(installedTime);
+            assertThat(Files.getLastModifiedTime(versionsDirectory.resolve(".1.0.used"))).isGreaterThan(installedTime);
+        }
+    }
+
+    @Test
+    public void installWithoutKeptVersionsShouldReplaceLinkButNotLinkedVersion() throws Exception {
+        Path installedDriver = installationDirectory.resolve("testdriver-linux-64bit");
+        try (DriverInstaller uut = new DriverInstaller(log, installationDirectory)) {
+            uut.setKeepInstalledVersions(true);
+            uut.install(createDriver("1.0"), createExtractedDirectoryDriver("old"));
+            uut.setKeepInstalledVersions(false);
+            uut.install(createDriver("2.0"), createExtractedDirectoryDriver("new"));
+        }
+
+        assertThat(linkedTree()).doesNotContain("versions");
+        assertThat(installedDriver.resolve("README")).hasContent("new");
+        assertThat(installationDirectory.resolve(".testdriver-linux-64bit.versions").resolve("1.0").resolve("README")).hasContent("old");
+    }
+
+    @Test
+    public void installFromExtractLocationShouldRenameExtractedFilesIntoPlace() throws Exception {
+        try (DriverInstaller uut = new DriverInstaller(log, installationDirectory)) {
+            Driver driver = createDriver("1.0");
+            Path extractLocation = uut.createExtractLocation(driver);
+            Path binDirectory = Files.createDirectories(extractLocation.resolve("testdriver").resolve("bin"));
+            Path extractedFile = Files.write(binDirectory.resolve("testdriver"), "in place".getBytes(StandardCharsets.UTF_8));
+            Object extractedFileKey = Files.readAttributes(extractedFile, BasicFileAttributes.class).fileKey();
+
+            uut.install(driver, extractLocation);
+
+            Path installedFile = installationDirectory.resolve("testdriver-linux-64bit").resolve("bin").resolve("testdriver");
+            assertThat(installedFile).hasContent("in place");
+            assertThat(Files.readAttributes(installedFile, BasicFileAttributes.class).fileKey()).isEqualTo(extractedFileKey);
+        }
+
+        assertThat(installationDirectory.toFile().list()).containsExactlyInAnyOrder("testdriver-linux-64bit", "testdriver-linux-64bit.version", linkedTree());
+    }
+
+    @Test
+    public void installFromExtractLocationShouldRenameSingleFile() throws Exception {
+        try (DriverInstaller uut = new DriverInstaller(log, installationDirectory)) {
+            uut.install(createDriver("1.0"), createExtractedSingleFileDriver("old"));
+            Driver driver = createDriver("2.0");
+            Path extractLocation = uut.createExtractLocation(driver);
+            Path driverFile = Files.write(extractLocation.resolve("testdriver.bin"), "new".getBytes(StandardCharsets.UTF_8));
+            driverFile.toFile().setExecutable(true);
+
+            uut.install(driver, extractLocation);
+        }
+
+        assertThat(installationDirectory.toFile().list()).containsExactlyInAnyOrder("testdriver-linux-64bit", "testdriver-linux-64bit.version");
+        assertThat(installationDirectory.resolve("testdriver-linux-64bit")).hasContent("new").isExecutable();
+    }
+
+    @Test
+    public void closeShouldDeleteExtractLocationsOfDriversNotInstalled() throws Exception {
+        try (DriverInstaller uut = new DriverInstaller(log, installationDirectory)) {
+            Path extractLocation = uut.createExtractLocation(createDriver("1.0"));
+            Files.write(extractLocation.resolve("partially-extracted"), new byte[10]);
+        }
+
+        assertThat(installationDirectory.toFile().list()).isEmpty();
+    }
+
+    /**
+     * @return the name of the tree the installed directory driver links to
+     */
+    private String linkedTree() throws IOException {
+        Path installedDriver = installationDirectory.resolve("testdriver-linux-64bit");
+        assertThat(installedDriver).isSymbolicLink();
+        return Files.readSymbolicLink(installedDriver).toString();
+    }
+
+    private static Object fileKey(Path file) throws IOException {
+        return Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+    }
+
+    private Driver createDriver(String version) {
+        Driver driver = new Driver();
+        driver.setName("testdriver");
+        driver.setPlatform("linux");
+        driver.setBit("64");
+        driver.setVersion(version);
+        driver.setUrl("https://example.com/testdriver.zip");
+        return driver;
+    }
+
+    private Path createExtractedDirectoryDriver(String content) throws IOException {
+        Path extractLocation = tempFolder.newFolder().toPath();
+        Path binDirectory = Files.createDirectories(extractLocation.resolve("testdriver").resolve("bin"));
+        Files.write(binDirectory.resolve("testdriver"), content.getBytes(StandardCharsets.UTF_8));
+        Files.write(extractLocation.resolve("testdriver").resolve("README"), content.getBytes(StandardCharsets.UTF_8));
+        return extractLocation;
+    }
+
+    private Path createExtractedSingleFileDriver(String content) throws IOException {
+        Path extractLocation = tempFolder.newFolder().toPath();
+        Path driverFile = Files.write(extractLocation.resolve("testdriver"), content.getBytes(StandardCharsets.UTF_8));
+        // as done by the extractor
+        driverFile.toFile().setExecutable(true);
+        return extractLocation;
+    }
+}
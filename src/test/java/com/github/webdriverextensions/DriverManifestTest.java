@@ -0,0 +1,113 @@
+package com.github.webdriverextensions;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DriverManifestTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Mock
+    private Log log;
+
+    private Path installationDirectory;
+    private Path installedDriver;
+    private Driver driver;
+
+    @Before
+    public void setUp() throws Exception {
+        installationDirectory = tempFolder.getRoot().toPath().resolve("drivers");
+        driver = new Driver();
+        driver.setName("testdriver");
+        driver.setPlatform("linux");
+        driver.setBit("64");
+        installedDriver = Files.createDirectories(installationDirectory.resolve(driver.getId()).resolve("bin"));
+        Files.write(installedDriver.resolve("testdriver"), "driver".getBytes(StandardCharsets.UTF_8));
+        Files.write(installedDriver.resolve("README"), "readme".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void unchangedDriverShouldBeIntact() throws Exception {
+        DriverManifest uut = new DriverManifest(log, installationDirectory, 2);
+
+        uut.write(driver, installationDirectory.resolve(driver.getId()));
+
+        assertThat(uut.isIntact(driver)).isTrue();
+    }
+
+    @Test
+    public void truncatedFileShouldBeDetected() throws Exception {
+        DriverManifest uut = new DriverManifest(log, installationDirectory, 2);
+        uut.write(driver, installationDirectory.resolve(driver.getId()));
+
+        Files.write(installedDriver.resolve("testdriver"), new byte[0]);
+
+        assertThat(uut.isIntact(driver)).isFalse();
+    }
+
+    @Test
+    public void missingFileShouldBeDetected() throws Exception {
+        DriverManifest uut = new DriverManifest(log, installationDirectory, 2);
+        uut.write(driver, installationDirectory.resolve(driver.getId()));
+
+        Files.delete(installedDriver.resolve("README"));
+
+        assertThat(uut.isIntact(driver)).isFalse();
+    }
+
+    @Test
+    public void changedContentOfSameSizeShouldBeDetectedByHash() throws Exception {
+        DriverManifest uut = new DriverManifest(log, installationDirectory, 2);
+        uut.write(driver, installationDirectory.resolve(driver.getId()));
+
+        Files.write(installedDriver.resolve("testdriver"), "broken".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(installedDriver.resolve("testdriver"), FileTime.fromMillis(1_500_000_000_000L));
+
+        assertThat(uut.isIntact(driver)).isFalse();
+    }
+
+    @Test
+    public void touchedFileWithSameContentShouldBeIntact() throws Exception {
+        DriverManifest uut = new DriverManifest(log, installationDirectory, 1);
+        uut.write(driver, installationDirectory.resolve(driver.getId()));
+
+        Files.setLastModifiedTime(installedDriver.resolve("testdriver"), FileTime.fromMillis(1_500_000_000_000L));
+
+        assertThat(uut.isIntact(driver)).isTrue();
+        assertThat(uut.isIntact(driver)).isTrue();
+    }
+
+    @Test
+    public void driverWithoutManifestShouldNotBeIntact() throws Exception {
+        DriverManifest uut = new DriverManifest(log, installationDirectory, 2);
+
+        assertThat(uut.isIntact(driver)).isFalse();
+    }
+
+    @Test
+    public void singleFileDriverShouldBeVerified() throws Exception {
+        Path singleFile = Files.write(installationDirectory.resolve("otherdriver"), "driver".getBytes(StandardCharsets.UTF_8));
+        Driver otherDriver = new Driver();
+        otherDriver.setName("otherdriver");
+        DriverManifest uut = new DriverManifest(log, installationDirectory, 2);
+        uut.write(otherDriver, singleFile);
+
+        assertThat(uut.isIntact(otherDriver)).isTrue();
+        Files.write(singleFile, "dr".getBytes(StandardCharsets.UTF_8));
+        assertThat(uut.isIntact(otherDriver)).isFalse();
+    }
+}
@@ -0,0 +1,260 @@
+package com.github.webdriverextensions;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.io.HttpRequestHandler;
+import org.apache.hc.core5.http.io.entity.InputStreamEntity;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+/**
+ * Serves driver archives and a repository from memory, like a remote driver
+ * host would, for {@link org.apache.hc.core5.testing.classic.ClassicTestServer}.
+ * Every response can be delayed by a latency and its body throttled to a
+ * bandwidth. Single byte ranges and ETags are supported if enabled. Counts
+ * the requests and the bytes sent, so that tests can tell what a client
+ * downloaded.
+ * <pre>
+ * DriverServer driverServer = new DriverServer().withLatency(50).withBandwidth(1024 * 1024);
+ * server.register("/*", driverServer);
+ * </pre>
+ */
+class DriverServer implements HttpRequestHandler {
+
+    private static final Pattern SINGLE_RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
+
+    private final Map<String, byte[]> files = new ConcurrentHashMap<>();
+    private final Map<String, String> eTags = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> requestsByPath = new ConcurrentHashMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger notModified = new AtomicInteger();
+    private final AtomicInteger partial = new AtomicInteger();
+    private final AtomicLong bytesSent = new AtomicLong();
+    private long latencyMillis;
+    private long bytesPerSecond;
+    private boolean ranges;
+    private boolean eTagsEnabled;
+
+    /**
+     * @param latencyMillis the time every response is delayed by
+     */
+    DriverServer withLatency(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+        return this;
+    }
+
+    /**
+     * @param bytesPerSecond the rate the body of every response is sent with.
+     * 0 for as fast as possible.
+     */
+    DriverServer withBandwidth(long bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+        return this;
+    }
+
+    /**
+     * @param ranges if a request for a single byte range is answered with
+     * just these bytes
+     */
+    DriverServer withRanges(boolean ranges) {
+        this.ranges = ranges;
+        return this;
+    }
+
+    /**
+     * @param eTags if responses carry an ETag and a request with a matching
+     * <code>If-None-Match</code> is answered with 304
+     */
+    DriverServer withETags(boolean eTags) {
+        this.eTagsEnabled = eTags;
+        return this;
+    }
+
+    /**
+     * serves {@code content} at {@code path}
+     */
+    void addFile(String path, byte[] content) {
+        files.put(path, content);
+        eTags.put(path, "\"" + Checksums.toHex(Checksums.sha256().digest(content)) + "\"");
+    }
+
+    /**
+     * @return the number of requests, including the ones not found
+     */
+    int getRequests() {
+        return requests.get();
+    }
+
+    int getRequests(String path) {
+        AtomicInteger count = requestsByPath.get(path);
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * @return the number of requests answered with 304
+     */
+    int getNotModified() {
+        return notModified.get();
+    }
+
+    /**
+     * @return the number of requests answered with 206
+     */
+    int getPartial() {
+        return partial.get();
+    }
+
+    long getBytesSent() {
+        return bytesSent.get();
+    }
+
+    void resetCounters() {
+        requests.set(0);
+        requestsByPath.clear();
+        notModified.set(0);
+        partial.set(0);
+        bytesSent.set(0);
+    }
+
+    @Override
+    public void handle(ClassicHttpRequest request, ClassicHttpResponse response, HttpContext context) throws IOException {
+        String path = request.getPath();
+        requests.incrementAndGet();
+        requestsByPath.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+        sleep(latencyMillis);
+
+        byte[] content = files.get(path);
+        if (content == null) {
+            response.setCode(HttpStatus.SC_NOT_FOUND);
+            return;
+        }
+        if (eTagsEnabled) {
+            String eTag = eTags.get(path);
+            response.setHeader(HttpHeaders.ETAG, eTag);
+            Header ifNoneMatch = request.getFirstHeader(HttpHeaders.IF_NONE_MATCH);
+            if (ifNoneMatch != null && ifNoneMatch.getValue().equals(eTag)) {
+                notModified.incrementAndGet();
+                response.setCode(HttpStatus.SC_NOT_MODIFIED);
+                return;
+            }
+        }
+
+        int start = 0;
+        int end = content.length;
+        if (ranges) {
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            Header range = request.getFirstHeader(HttpHeaders.RANGE);
+            Matcher matcher = range != null ? SINGLE_RANGE.matcher(range.getValue()) : null;
+            if (matcher != null && matcher.matches() && !(matcher.group(1).isEmpty() && matcher.group(2).isEmpty())) {
+                if (matcher.group(1).isEmpty()) {
+                    // the last bytes
+                    start = Math.max(0, content.length - Integer.parseInt(matcher.group(2)));
+                } else {
+                    start = Integer.parseInt(matcher.group(1));
+                    if (!matcher.group(2).isEmpty()) {
+                        end = Math.min(content.length, Integer.parseInt(matcher.group(2)) + 1);
+                    }
+                }
+                if (start >= content.length || start >= end) {
+                    response.setCode(HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + content.length);
+                    return;
+                }
+                partial.incrementAndGet();
+                response.setCode(HttpStatus.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + content.length);
+            } else {
+                response.setCode(HttpStatus.SC_OK);
+            }
+        } else {
+            response.setCode(HttpStatus.SC_OK);
+        }
+        InputStream body = new ByteArrayInputStream(content, start, end - start);
+        response.setEntity(new InputStreamEntity(new CountingInputStream(bytesPerSecond > 0 ? new ThrottledInputStream(body, bytesPerSecond) : body),
+                end - start, path.endsWith(".json") ? ContentType.APPLICATION_JSON : ContentType.APPLICATION_OCTET_STREAM));
+    }
+
+    private static void sleep(long millis) throws InterruptedIOException {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+
+    private class CountingInputStream extends FilterInputStream {
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                bytesSent.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int count = super.read(b, off, len);
+            if (count > 0) {
+                bytesSent.addAndGet(count);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * reads no faster than {@code bytesPerSecond}, in chunks of a tenth of it
+     */
+    private static class ThrottledInputStream extends FilterInputStream {
+
+        private final long bytesPerSecond;
+        private final long start = System.nanoTime();
+        private long bytesRead;
+
+        ThrottledInputStream(InputStream in, long bytesPerSecond) {
+            super(in);
+            this.bytesPerSecond = bytesPerSecond;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int count = super.read(b, off, (int) Math.max(1, Math.min(len, bytesPerSecond / 10)));
+            if (count > 0) {
+                bytesRead += count;
+                long due = TimeUnit.SECONDS.toNanos(1) * bytesRead / bytesPerSecond;
+                sleep(TimeUnit.NANOSECONDS.toMillis(due - (System.nanoTime() - start)));
+            }
+            return count;
+        }
+    }
+}
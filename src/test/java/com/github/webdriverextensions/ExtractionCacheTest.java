@@ -0,0 +1,93 @@
+package com.github.webdriverextensions;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ExtractionCacheTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Mock
+    private Log log;
+
+    private Path cacheDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        cacheDirectory = tempFolder.getRoot().toPath().resolve("extracted");
+    }
+
+    @Test
+    public void keyShouldDependOnArchiveContentAndFileMatchInsideAndCount() throws Exception {
+        Path archive = Paths.get("src/test/resources/file-extractor-test-data/single-file.zip");
+        Path sameArchive = tempFolder.newFile("copy.zip").toPath();
+        Files.copy(archive, sameArchive, StandardCopyOption.REPLACE_EXISTING);
+        Path otherArchive = Paths.get("src/test/resources/file-extractor-test-data/single-file.tar");
+
+        assertThat(ExtractionCache.keyFor(archive, null, null)).isEqualTo(ExtractionCache.keyFor(sameArchive, null, null));
+        assertThat(ExtractionCache.keyFor(archive, null, null)).isNotEqualTo(ExtractionCache.keyFor(otherArchive, null, null));
+        assertThat(ExtractionCache.keyFor(archive, null, null)).isNotEqualTo(ExtractionCache.keyFor(archive, ".*single-file", null));
+        assertThat(ExtractionCache.keyFor(archive, ".*single-file", null)).isNotEqualTo(ExtractionCache.keyFor(archive, ".*single-file", 1));
+    }
+
+    @Test
+    public void storedTreeShouldBeFound() throws Exception {
+        ExtractionCache uut = new ExtractionCache(log, cacheDirectory, 10);
+
+        Path cachedTree = uut.store("key", createExtractedTree("content"));
+
+        assertThat(cachedTree.resolve("a-directory").resolve("a-file")).hasContent("content");
+        assertThat(uut.lookup("key")).contains(cachedTree);
+        assertThat(uut.lookup("other-key")).isEmpty();
+    }
+
+    @Test
+    public void corruptedEntryShouldBeDiscarded() throws Exception {
+        ExtractionCache uut = new ExtractionCache(log, cacheDirectory, 10);
+        Path cachedTree = uut.store("key", createExtractedTree("content"));
+
+        // truncate
+        Files.write(cachedTree.resolve("a-directory").resolve("a-file"), new byte[0]);
+
+        assertThat(uut.lookup("key")).isEmpty();
+        assertThat(cacheDirectory.resolve("key")).doesNotExist();
+    }
+
+    @Test
+    public void leastRecentlyUsedEntriesShouldBeEvicted() throws Exception {
+        ExtractionCache uut = new ExtractionCache(log, cacheDirectory, 2);
+        uut.store("first", createExtractedTree("first"));
+        uut.store("second", createExtractedTree("second"));
+        Files.setLastModifiedTime(cacheDirectory.resolve("first").resolve("manifest.json"), FileTime.fromMillis(1000));
+        Files.setLastModifiedTime(cacheDirectory.resolve("second").resolve("manifest.json"), FileTime.fromMillis(2000));
+        // using the first entry makes the second one the least recently used
+        assertThat(uut.lookup("first")).isPresent();
+
+        uut.store("third", createExtractedTree("third"));
+
+        assertThat(cacheDirectory.toFile().list()).containsExactlyInAnyOrder("first", "third");
+    }
+
+    private Path createExtractedTree(String content) throws Exception {
+        Path tree = tempFolder.newFolder().toPath();
+        Files.createDirectories(tree.resolve("a-directory"));
+        Files.write(tree.resolve("a-directory").resolve("a-file"), content.getBytes(StandardCharsets.UTF_8));
+        return tree;
+    }
+}
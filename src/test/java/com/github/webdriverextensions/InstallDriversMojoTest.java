@@ -1,11 +1,16 @@
 package com.github.webdriverextensions;
 
 import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
 import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.FileUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 public class InstallDriversMojoTest extends AbstractInstallDriversMojoTest {
 
@@ -138,6 +143,70 @@ public class InstallDriversMojoTest extends AbstractInstallDriversMojoTest {
         assertThat(mojo.pluginWorkingDirectory).doesNotExist();
     }
 
+    public void test_that_configuration_with_skipUnchanged_skips_unchanged_installation() throws Exception {
+        // Given
+        InstallDriversMojo mojo = getMojo("src/test/resources/custom_driver_single_file_pom.xml");
+        mojo.skipUnchanged = true;
+        mojo.execute();
+
+        // When
+        mojo.execute();
+
+        // Then
+        assertDriverIsInstalled("custom-chrome-driver-windows-32bit.exe");
+        assertThat(mojo.installationDirectory.toPath().resolve(InstallationFingerprint.FILE_NAME)).isRegularFile();
+        verify(mojo, times(1)).createDownloader();
+    }
+
+    public void test_that_configuration_with_skipUnchanged_installs_if_installation_directory_changed() throws Exception {
+        // Given
+        InstallDriversMojo mojo = getMojo("src/test/resources/custom_driver_single_file_pom.xml");
+        mojo.skipUnchanged = true;
+        mojo.execute();
+        new File(mojo.installationDirectory, "custom-chrome-driver-windows-32bit.exe").delete();
+
+        // When
+        mojo.execute();
+
+        // Then
+        assertDriverIsInstalled("custom-chrome-driver-windows-32bit.exe");
+        verify(mojo, times(2)).createDownloader();
+    }
+
+    public void test_that_configuration_with_skipUnchanged_installs_if_gcAfterInstall_is_turned_on() throws Exception {
+        // Given
+        InstallDriversMojo mojo = getMojo("src/test/resources/custom_driver_single_file_pom.xml");
+        mojo.skipUnchanged = true;
+        Path staleDriver = mojo.installationDirectory.toPath().resolve(".custom-chrome-driver-windows-32bit.exe.incomplete");
+        Files.createDirectories(staleDriver);
+        Files.setLastModifiedTime(staleDriver, FileTime.fromMillis(0));
+        mojo.execute();
+        mojo.gcAfterInstall = true;
+
+        // When
+        mojo.execute();
+
+        // Then
+        assertDriverIsInstalled("custom-chrome-driver-windows-32bit.exe");
+        assertThat(staleDriver).doesNotExist();
+    }
+
+    public void test_that_configuration_with_reportMetrics_writes_metrics() throws Exception {
+        // Given
+        InstallDriversMojo mojo = getMojo("src/test/resources/custom_driver_single_file_pom.xml");
+        mojo.reportMetrics = true;
+        mojo.metricsReportFile = new File(tempFolder.newFolder(), "metrics.json");
+
+        // When
+        mojo.execute();
+
+        // Then
+        assertDriverIsInstalled("custom-chrome-driver-windows-32bit.exe");
+        assertNumberOfInstalledDriverIs(1);
+        assertThat(mojo.metricsReportFile).content()
+                .contains("\"repositoryLoad\"", "\"download\"", "\"extract\"", "\"install\"", "\"custom-chrome-driver-windows-32bit\"");
+    }
+
     public void test_that_configuration_with_custom_driver_containing_directory_not_in_repository_works() throws Exception {
         // Given
         InstallDriversMojo mojo = getMojo("src/test/resources/custom_driver_directory_pom.xml");
@@ -152,6 +221,45 @@ public class InstallDriversMojoTest extends AbstractInstallDriversMojoTest {
         assertThat(installedFiles).hasSize(6);
     }
 
+    public void test_that_configuration_with_extractIntoInstallationDirectory_leaves_no_extract_directory() throws Exception {
+        // Given
+        InstallDriversMojo mojo = getMojo("src/test/resources/custom_driver_directory_pom.xml");
+        mojo.extractIntoInstallationDirectory = true;
+
+        // When
+        mojo.execute();
+
+        // Then
+        assertDriverIsInstalled("custom-phantomjs-driver-windows-32bit");
+        File[] installedFiles = mojo.installationDirectory.toPath().resolve("custom-phantomjs-driver-windows-32bit").toFile().listFiles();
+        assertThat(installedFiles).hasSize(6);
+        assertThat(mojo.installationDirectory.list()).noneMatch(name -> name.contains(".extract-"));
+    }
+
+    public void test_that_configuration_with_keepExtractedWebdrivers_installs_from_extraction_cache() throws Exception {
+        // Given
+        InstallDriversMojo mojo = getMojo("src/test/resources/custom_driver_directory_pom.xml");
+        mojo.keepDownloadedWebdrivers = true;
+        mojo.keepExtractedWebdrivers = true;
+        mojo.installMode = InstallMode.LINK;
+        mojo.execute();
+        File[] cacheEntries = mojo.pluginWorkingDirectory.toPath().resolve("extracted").toFile().listFiles();
+        assertThat(cacheEntries).hasSize(1);
+
+        // When
+        // the fake downloader does not use the download cache
+        FileUtils.deleteDirectory(mojo.pluginWorkingDirectory.toPath().resolve("downloads").toFile());
+        mojo.installationDirectory = tempFolder.newFolder();
+        mojo.execute();
+
+        // Then
+        assertDriverIsInstalled("custom-phantomjs-driver-windows-32bit");
+        assertNumberOfInstalledDriverIs(1);
+        File[] installedFiles = mojo.installationDirectory.toPath().resolve("custom-phantomjs-driver-windows-32bit").toFile().listFiles();
+        assertThat(installedFiles).hasSize(6);
+        assertThat(mojo.pluginWorkingDirectory.toPath().resolve("extracted").toFile().listFiles()).containsExactly(cacheEntries);
+    }
+
     public void test_that_configuration_with_custom_driver_not_in_repository_with_file_match_inside_works() throws Exception {
         // Given
         InstallDriversMojo mojo = getMojo("src/test/resources/custom_driver_file_match_inside_pom.xml");
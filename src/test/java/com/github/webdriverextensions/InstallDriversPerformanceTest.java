@@ -0,0 +1,240 @@
+package com.github.webdriverextensions;
+
+import com.github.webdriverextensions.newversion.ArchiveGenerator;
+import com.google.gson.GsonBuilder;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.java.Log;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Times complete executions of <code>install-drivers</code> against a local
+ * {@link DriverServer} serving generated archives, so that the whole plugin
+ * can be benchmarked without network access:
+ * <ul>
+ * <li>cold: nothing downloaded or installed yet</li>
+ * <li>warm cache: the downloads are kept, the installation directory is
+ * empty</li>
+ * <li>up-to-date: the drivers are installed already</li>
+ * </ul>
+ * The defaults keep the test fast. Benchmark with system properties, e.g.
+ * <pre>
+ * mvn test -Dtest=InstallDriversPerformanceTest -Dwebdriverextensions.perf.drivers=5 -Dwebdriverextensions.perf.archiveSize=33554432 \
+ *     -Dwebdriverextensions.perf.latency=50 -Dwebdriverextensions.perf.bandwidth=10485760 -Dwebdriverextensions.perf.repetitions=5
+ * </pre> See {@link #PROPERTY_PREFIX} for all of them. The timings are logged.
+ */
+@Log
+@RunWith(MockitoJUnitRunner.class)
+public class InstallDriversPerformanceTest extends LocalServerTestBase {
+
+    /**
+     * the prefix of the system properties <code>drivers</code>,
+     * <code>archiveSize</code>, <code>format</code>, <code>layout</code>,
+     * <code>entries</code>, <code>latency</code> (ms), <code>bandwidth</code>
+     * (bytes per second), <code>ranges</code>, <code>etags</code>,
+     * <code>skipUnchanged</code> and <code>repetitions</code>
+     */
+    static final String PROPERTY_PREFIX = "webdriverextensions.perf.";
+
+    private static final String REPOSITORY_PATH = "/repository.json";
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Mock
+    private org.apache.maven.plugin.logging.Log mojoLog;
+
+    private final int driverCount = Integer.getInteger(PROPERTY_PREFIX + "drivers", 3);
+    private final long archiveSize = Long.getLong(PROPERTY_PREFIX + "archiveSize", 1024 * 1024);
+    private final String format = System.getProperty(PROPERTY_PREFIX + "format", "tar.gz");
+    private final ArchiveGenerator.Layout layout = ArchiveGenerator.Layout.valueOf(System.getProperty(PROPERTY_PREFIX + "layout", "SINGLE_FILE"));
+    private final int entries = Integer.getInteger(PROPERTY_PREFIX + "entries", 64);
+    private final boolean skipUnchanged = Boolean.getBoolean(PROPERTY_PREFIX + "skipUnchanged");
+    private final int repetitions = Integer.getInteger(PROPERTY_PREFIX + "repetitions", 1);
+
+    private final DriverServer driverServer = new DriverServer()
+            .withLatency(Long.getLong(PROPERTY_PREFIX + "latency", 0))
+            .withBandwidth(Long.getLong(PROPERTY_PREFIX + "bandwidth", 0))
+            .withRanges(Boolean.getBoolean(PROPERTY_PREFIX + "ranges"))
+            .withETags(Boolean.getBoolean(PROPERTY_PREFIX + "etags"));
+    private final List<String> archivePaths = new ArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        server.register("/*", driverServer);
+        start();
+
+        Path archive = tempFolder.getRoot().toPath().resolve("driver." + format);
+        ArchiveGenerator.write(archive, ArchiveGenerator.layout(layout, archiveSize, entries));
+        byte[] archiveContent = Files.readAllBytes(archive);
+        List<Driver> drivers = new ArrayList<>();
+        for (int i = 0; i < driverCount; i++) {
+            String path = "/driver-" + i + "/1.0/driver-" + i + "_linux64." + format;
+            driverServer.addFile(path, archiveContent);
+            archivePaths.add(path);
+            Driver driver = new Driver();
+            driver.setName("driver-" + i);
+            driver.setPlatform("linux");
+            driver.setBit("64");
+            driver.setVersion("1.0");
+            driver.setUrl(getCompleteUrlFor(path).toString());
+            drivers.add(driver);
+        }
+        String repository = new GsonBuilder()
+                .excludeFieldsWithoutExposeAnnotation()
+                .setPrettyPrinting()
+                .create()
+                .toJson(Collections.singletonMap("drivers", drivers));
+        driverServer.addFile(REPOSITORY_PATH, repository.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void coldInstallation() throws Exception {
+        // loads the classes, like the first execution of the other scenarios
+        createMojo(tempFolder.newFolder(), tempFolder.newFolder(), false).execute();
+
+        long[] timings = new long[repetitions];
+        for (int i = 0; i < repetitions; i++) {
+            File installationDirectory = tempFolder.newFolder();
+            File pluginWorkingDirectory = tempFolder.newFolder();
+            driverServer.resetCounters();
+
+            timings[i] = time(createMojo(installationDirectory, pluginWorkingDirectory, false));
+
+            assertThat(archiveRequests()).isEqualTo(driverCount);
+            assertThat(installationDirectory.toPath().resolve("driver-0-linux-64bit")).exists();
+        }
+        report("cold", timings);
+    }
+
+    @Test
+    public void installationWithWarmDownloadCache() throws Exception {
+        File pluginWorkingDirectory = tempFolder.newFolder();
+        createMojo(tempFolder.newFolder(), pluginWorkingDirectory, true).execute();
+
+        long[] timings = new long[repetitions];
+        for (int i = 0; i < repetitions; i++) {
+            File installationDirectory = tempFolder.newFolder();
+            driverServer.resetCounters();
+
+            timings[i] = time(createMojo(installationDirectory, pluginWorkingDirectory, true));
+
+            assertThat(archiveRequests()).isZero();
+            assertThat(installationDirectory.toPath().resolve("driver-0-linux-64bit")).exists();
+        }
+        report("warm cache", timings);
+    }
+
+    @Test
+    public void upToDateInstallation() throws Exception {
+        File installationDirectory = tempFolder.newFolder();
+        createMojo(installationDirectory, tempFolder.newFolder(), false).execute();
+
+        long[] timings = new long[repetitions];
+        for (int i = 0; i < repetitions; i++) {
+            driverServer.resetCounters();
+
+            timings[i] = time(createMojo(installationDirectory, tempFolder.newFolder(), false));
+
+            assertThat(archiveRequests()).isZero();
+        }
+        report("up-to-date", timings);
+    }
+
+    @Test
+    public void driverServerShouldAnswerRangeAndConditionalRequests() throws Exception {
+        // Given
+        driverServer.withRanges(true).withETags(true);
+        String url = getCompleteUrlFor(archivePaths.get(0)).toString();
+        byte[] archive = Files.readAllBytes(tempFolder.getRoot().toPath().resolve("driver." + format));
+
+        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
+            // When
+            HttpGet rangeRequest = new HttpGet(url);
+            rangeRequest.setHeader(HttpHeaders.RANGE, "bytes=10-19");
+            String eTag = httpClient.execute(rangeRequest, response -> {
+                // Then
+                assertThat(response.getCode()).isEqualTo(HttpStatus.SC_PARTIAL_CONTENT);
+                assertThat(response.getFirstHeader(HttpHeaders.CONTENT_RANGE).getValue()).isEqualTo("bytes 10-19/" + archive.length);
+                assertThat(EntityUtils.toByteArray(response.getEntity())).isEqualTo(Arrays.copyOfRange(archive, 10, 20));
+                return response.getFirstHeader(HttpHeaders.ETAG).getValue();
+            });
+
+            // When
+            HttpGet conditionalRequest = new HttpGet(url);
+            conditionalRequest.setHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+            int code = httpClient.execute(conditionalRequest, response -> response.getCode());
+
+            // Then
+            assertThat(code).isEqualTo(HttpStatus.SC_NOT_MODIFIED);
+        }
+        assertThat(driverServer.getPartial()).isOne();
+        assertThat(driverServer.getNotModified()).isOne();
+        assertThat(driverServer.getBytesSent()).isEqualTo(10);
+    }
+
+    private InstallDriversMojo createMojo(File installationDirectory, File pluginWorkingDirectory, boolean keepDownloads) throws IOException {
+        InstallDriversMojo mojo = new InstallDriversMojo();
+        mojo.setLog(mojoLog);
+        mojo.repositoryUrl = getCompleteUrlFor(REPOSITORY_PATH);
+        mojo.installationDirectory = installationDirectory;
+        mojo.pluginWorkingDirectory = pluginWorkingDirectory;
+        mojo.keepDownloadedWebdrivers = keepDownloads;
+        mojo.skipUnchanged = skipUnchanged;
+        mojo.downloadConnectTimeout = 30;
+        mojo.downloadResponseTimeout = 1800;
+        for (int i = 0; i < driverCount; i++) {
+            Driver driver = new Driver();
+            driver.setName("driver-" + i);
+            driver.setPlatform("linux");
+            driver.setBit("64");
+            driver.setVersion("1.0");
+            mojo.drivers.add(driver);
+        }
+        return mojo;
+    }
+
+    private static long time(InstallDriversMojo mojo) throws MojoExecutionException {
+        long start = System.nanoTime();
+        mojo.execute();
+        return System.nanoTime() - start;
+    }
+
+    private int archiveRequests() {
+        return archivePaths.stream().mapToInt(driverServer::getRequests).sum();
+    }
+
+    private void report(String scenario, long[] timings) {
+        long[] sorted = timings.clone();
+        Arrays.sort(sorted);
+        log.info(String.format("%s: %d drivers of %d bytes as %s, min %d ms, median %d ms, max %d ms over %d executions, "
+                + "last one %d requests, %d bytes sent, %d not modified, %d partial",
+                scenario, driverCount, archiveSize, format,
+                TimeUnit.NANOSECONDS.toMillis(sorted[0]), TimeUnit.NANOSECONDS.toMillis(sorted[sorted.length / 2]),
+                TimeUnit.NANOSECONDS.toMillis(sorted[sorted.length - 1]), timings.length,
+                driverServer.getRequests(), driverServer.getBytesSent(), driverServer.getNotModified(), driverServer.getPartial()));
+    }
+}
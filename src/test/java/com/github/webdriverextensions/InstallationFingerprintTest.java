@@ -0,0 +1,95 @@
+package com.github.webdriverextensions;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InstallationFingerprintTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private Path installationDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        installationDirectory = tempFolder.newFolder("drivers").toPath();
+        Files.createDirectories(installationDirectory.resolve("testdriver").resolve("bin"));
+        Files.write(installationDirectory.resolve("testdriver").resolve("bin").resolve("testdriver"), "driver".getBytes(StandardCharsets.UTF_8));
+        Files.write(installationDirectory.resolve("testdriver.version"), "{}".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void savedFingerprintShouldBeUnchanged() throws Exception {
+        InstallationFingerprint uut = new InstallationFingerprint(installationDirectory, "inputs");
+
+        uut.save();
+
+        assertThat(uut.isUnchanged()).isTrue();
+        assertThat(installationDirectory.resolve(InstallationFingerprint.FILE_NAME)).hasContent(uut.compute());
+    }
+
+    @Test
+    public void fingerprintShouldNotDependOnModificationTimes() throws Exception {
+        InstallationFingerprint uut = new InstallationFingerprint(installationDirectory, "inputs");
+        uut.save();
+
+        Files.setLastModifiedTime(installationDirectory.resolve("testdriver").resolve("bin").resolve("testdriver"), FileTime.fromMillis(0));
+
+        assertThat(uut.isUnchanged()).isTrue();
+    }
+
+    @Test
+    public void changedInputsShouldBeDetected() throws Exception {
+        new InstallationFingerprint(installationDirectory, "inputs").save();
+
+        InstallationFingerprint uut = new InstallationFingerprint(installationDirectory, "other inputs");
+
+        assertThat(uut.isUnchanged()).isFalse();
+    }
+
+    @Test
+    public void changedFileShouldBeDetected() throws Exception {
+        InstallationFingerprint uut = new InstallationFingerprint(installationDirectory, "inputs");
+        uut.save();
+
+        Files.write(installationDirectory.resolve("testdriver").resolve("bin").resolve("testdriver"), "truncated".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(uut.isUnchanged()).isFalse();
+    }
+
+    @Test
+    public void addedFileShouldBeDetected() throws Exception {
+        InstallationFingerprint uut = new InstallationFingerprint(installationDirectory, "inputs");
+        uut.save();
+
+        Files.createFile(installationDirectory.resolve("otherdriver"));
+
+        assertThat(uut.isUnchanged()).isFalse();
+    }
+
+    @Test
+    public void missingFingerprintShouldNotBeUnchanged() throws Exception {
+        InstallationFingerprint uut = new InstallationFingerprint(installationDirectory, "inputs");
+
+        assertThat(uut.isUnchanged()).isFalse();
+    }
+
+    @Test
+    public void fingerprintShouldBeTheSameForACopiedInstallationDirectory() throws Exception {
+        Path copy = tempFolder.newFolder("copy").toPath();
+        Files.createDirectories(copy.resolve("testdriver").resolve("bin"));
+        Files.write(copy.resolve("testdriver").resolve("bin").resolve("testdriver"), "driver".getBytes(StandardCharsets.UTF_8));
+        Files.write(copy.resolve("testdriver.version"), "{}".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(new InstallationFingerprint(copy, "inputs").compute())
+                .isEqualTo(new InstallationFingerprint(installationDirectory, "inputs").compute());
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.webdriverextensions;
+
+import com.github.webdriverextensions.InstallationMetrics.Phase;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class InstallationMetricsTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Mock
+    private Log log;
+
+    @Test
+    public void metricsShouldBeWrittenAsJson() throws Exception {
+        // Given
+        InstallationMetrics uut = new InstallationMetrics();
+        Driver driver = driver();
+        uut.time(Phase.REPOSITORY_LOAD, null, () -> "repository");
+        uut.time(Phase.DOWNLOAD, driver, () -> {
+            uut.downloaded(driver, 1234);
+            return null;
+        });
+        uut.time(Phase.EXTRACT, driver, () -> {
+            uut.extractCacheHit(driver);
+            return null;
+        });
+        uut.retried();
+        Path report = tempFolder.getRoot().toPath().resolve("target").resolve("metrics.json");
+
+        // When
+        uut.write(report);
+
+        // Then
+        JsonObject json = JsonParser.parseString(new String(Files.readAllBytes(report), StandardCharsets.UTF_8)).getAsJsonObject();
+        assertThat(json.get("skipped").getAsBoolean()).isFalse();
+        assertThat(json.getAsJsonObject("phases").keySet()).containsExactly("repositoryLoad", "download", "extract");
+        assertThat(json.getAsJsonObject("phases").getAsJsonObject("download").has("wallTimeMillis")).isTrue();
+        assertThat(json.getAsJsonObject("phases").getAsJsonObject("download").has("cpuTimeMillis")).isTrue();
+        assertThat(json.get("downloadedBytes").getAsLong()).isEqualTo(1234);
+        assertThat(json.get("downloadCacheMisses").getAsInt()).isOne();
+        assertThat(json.get("extractCacheHits").getAsInt()).isOne();
+        assertThat(json.get("retries").getAsInt()).isOne();
+        JsonObject driverJson = json.getAsJsonArray("drivers").get(0).getAsJsonObject();
+        assertThat(driverJson.get("id").getAsString()).isEqualTo("testdriver-linux-64bit");
+        assertThat(driverJson.get("version").getAsString()).isEqualTo("1.0");
+        assertThat(driverJson.getAsJsonObject("phases").keySet()).containsExactly("download", "extract");
+        assertThat(driverJson.get("downloadCache").getAsString()).isEqualTo("miss");
+        assertThat(driverJson.get("extractCache").getAsString()).isEqualTo("hit");
+    }
+
+    @Test
+    public void failedPhaseShouldBeTimed() throws Exception {
+        // Given
+        InstallationMetrics uut = new InstallationMetrics();
+
+        // When
+        assertThatThrownBy(() -> uut.time(Phase.INSTALL, driver(), () -> {
+            throw new IOException("failed");
+        })).isInstanceOf(IOException.class);
+        uut.log(log);
+
+        // Then
+        verify(log).info(startsWith("install "));
+        verify(log).info(startsWith("  testdriver-linux-64bit install "));
+    }
+
+    private static Driver driver() {
+        Driver driver = new Driver();
+        driver.setName("testdriver");
+        driver.setPlatform("linux");
+        driver.setBit("64");
+        driver.setVersion("1.0");
+        return driver;
+    }
+}
@@ -0,0 +1,162 @@
+package com.github.webdriverextensions;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PrefetchDriversMojoTest extends LocalServerTestBase {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Mock
+    private Log log;
+
+    private final AtomicInteger downloads = new AtomicInteger();
+    private volatile String missingPath;
+    private PrefetchDriversMojo uut;
+
+    @Before
+    public void setUp() throws IOException {
+        server.register("/*", (request, response, context) -> {
+            if (request.getPath().equals(missingPath)) {
+                response.setCode(HttpStatus.SC_NOT_FOUND);
+                return;
+            }
+            downloads.incrementAndGet();
+            response.setCode(HttpStatus.SC_OK);
+            response.setEntity(new StringEntity(request.getPath(), ContentType.APPLICATION_OCTET_STREAM));
+        });
+        start();
+
+        Path repository = tempFolder.newFile("repository.json").toPath();
+        Files.write(repository, ("{\"drivers\": ["
+                + driver("chromedriver", "linux", "64", "1.0")
+                + "," + driver("chromedriver", "linux", "64", "2.0")
+                + "," + driver("chromedriver", "mac", "64", "2.0")
+                + "," + driver("chromedriver", "windows", "32", "2.0")
+                + "," + driver("geckodriver", "linux", "64", "3.0")
+                + "]}").getBytes(StandardCharsets.UTF_8));
+
+        uut = new PrefetchDriversMojo();
+        uut.setLog(log);
+        uut.repositoryUrl = repository.toUri().toURL();
+        uut.pluginWorkingDirectory = tempFolder.newFolder("working-directory");
+        uut.prefetchThreads = 2;
+    }
+
+    @Test
+    public void shouldDownloadLatestDriversOfAllPlatforms() throws Exception {
+        // Given
+        uut.allPlatforms = true;
+
+        // When
+        uut.execute();
+
+        // Then
+        assertThat(downloads).hasValue(4);
+        assertThat(downloadedFile("chromedriver-linux-64bit-2.0", "chromedriver-linux-64-2.0.zip")).exists();
+        assertThat(downloadedFile("chromedriver-mac-64bit-2.0", "chromedriver-mac-64-2.0.zip")).exists();
+        assertThat(downloadedFile("chromedriver-windows-32bit-2.0", "chromedriver-windows-32-2.0.zip")).exists();
+        assertThat(downloadedFile("geckodriver-linux-64bit-3.0", "geckodriver-linux-64-3.0.zip")).exists();
+        assertThat(downloadedFile("chromedriver-linux-64bit-1.0", "download.completed")).doesNotExist();
+    }
+
+    @Test
+    public void shouldDownloadConfiguredDriversOfAllPlatforms() throws Exception {
+        // Given
+        uut.allPlatforms = true;
+        uut.drivers.add(configuredDriver("geckodriver", null, null, null));
+
+        // When
+        uut.execute();
+
+        // Then
+        assertThat(downloads).hasValue(1);
+        assertThat(downloadedFile("geckodriver-linux-64bit-3.0", "download.completed")).exists();
+    }
+
+    @Test
+    public void shouldDownloadConfiguredDrivers() throws Exception {
+        // Given
+        uut.drivers.add(configuredDriver("chromedriver", "linux", "64", "1.0"));
+        uut.drivers.add(configuredDriver("chromedriver", "mac", "64", "2.0"));
+
+        // When
+        uut.execute();
+
+        // Then
+        assertThat(downloads).hasValue(2);
+        assertThat(downloadedFile("chromedriver-linux-64bit-1.0", "chromedriver-linux-64-1.0.zip")).hasContent("/chromedriver-linux-64-1.0.zip");
+        assertThat(downloadedFile("chromedriver-mac-64bit-2.0", "chromedriver-mac-64-2.0.zip")).hasContent("/chromedriver-mac-64-2.0.zip");
+    }
+
+    @Test
+    public void shouldNotDownloadCachedDriversAgain() throws Exception {
+        // Given
+        uut.allPlatforms = true;
+        uut.execute();
+
+        // When
+        uut.execute();
+
+        // Then
+        assertThat(downloads).hasValue(4);
+    }
+
+    @Test
+    public void shouldRequirePluginWorkingDirectory() {
+        // Given
+        uut.pluginWorkingDirectory = null;
+
+        // Then
+        assertThatThrownBy(uut::execute).isInstanceOf(MojoExecutionException.class);
+        assertThat(downloads).hasValue(0);
+    }
+
+    @Test
+    public void shouldFailIfDownloadFails() throws Exception {
+        // Given
+        missingPath = "/chromedriver-mac-64-2.0.zip";
+        uut.allPlatforms = true;
+
+        // Then
+        assertThatThrownBy(uut::execute).isInstanceOf(InstallDriversMojoExecutionException.class).hasMessageContaining("404");
+    }
+
+    private Path downloadedFile(String directory, String file) {
+        return uut.pluginWorkingDirectory.toPath().resolve("downloads").resolve(directory).resolve(file);
+    }
+
+    private String driver(String name, String platform, String bit, String version) throws IOException {
+        String url = getCompleteUrlFor("/" + name + "-" + platform + "-" + bit + "-" + version + ".zip").toString();
+        return String.format("{\"name\": \"%s\", \"platform\": \"%s\", \"bit\": \"%s\", \"version\": \"%s\", \"url\": \"%s\"}", name, platform, bit, version, url);
+    }
+
+    private static Driver configuredDriver(String name, String platform, String bit, String version) {
+        Driver driver = new Driver();
+        driver.setName(name);
+        driver.setPlatform(platform);
+        driver.setBit(bit);
+        driver.setVersion(version);
+        return driver;
+    }
+}
@@ -3,6 +3,7 @@ package com.github.webdriverextensions;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Path;
 import java.util.Optional;
 import org.apache.hc.client5.http.HttpResponseException;
 import org.apache.hc.core5.http.ContentType;
@@ -12,7 +13,9 @@ import org.apache.hc.core5.http.io.entity.StringEntity;
 import org.apache.maven.artifact.versioning.ComparableVersion;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import static org.junit.Assert.assertThrows;
 import static org.hamcrest.CoreMatchers.instanceOf;
@@ -23,6 +26,9 @@ import static org.hamcrest.MatcherAssert.assertThat;
 
 public class RepositoryTest extends LocalServerTestBase {
 
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     @Test
     public void testConstructor() throws MojoExecutionException, MalformedURLException {
         URL repositoryFile = getCompleteUrlFor("/repository-3.0.json");
@@ -66,6 +72,18 @@ public class RepositoryTest extends LocalServerTestBase {
         assertThat(e.getMessage(), is("repository file is empty"));
     }
 
+    @Test
+    public void testSnapshot() throws Exception {
+        Repository repository = Repository.load(getCompleteUrlFor("/repository-3.0.json"), Optional.empty());
+        Path snapshot = tempFolder.getRoot().toPath().resolve("snapshot").resolve(Repository.SNAPSHOT_FILE_NAME);
+
+        repository.writeSnapshot(snapshot);
+        Repository loaded = Repository.loadSnapshot(snapshot);
+
+        assertThat(loaded.getDrivers(null, null, null, null, null), is(repository.getDrivers(null, null, null, null, null)));
+        assertThat(snapshot.resolveSibling("." + Repository.SNAPSHOT_FILE_NAME + ".incomplete").toFile().exists(), is(false));
+    }
+
     @Before
     public void setUp() throws IOException {
         server.register("/repository-3.0.json", (request, response, context) -> {
@@ -0,0 +1,153 @@
+package com.github.webdriverextensions;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@RunWith(MockitoJUnitRunner.class)
+public class VerifyDriversMojoTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Mock
+    private Log log;
+
+    private Path installationDirectory;
+    private Repository repository;
+    private VerifyDriversMojo uut;
+
+    @Before
+    public void setUp() throws Exception {
+        Path pluginWorkingDirectory = tempFolder.newFolder("working-directory").toPath();
+        Path snapshot = pluginWorkingDirectory.resolve(Repository.SNAPSHOT_FILE_NAME);
+        // the urls must never be accessed
+        Files.write(snapshot, ("{\"drivers\": ["
+                + "{\"name\": \"chromedriver\", \"platform\": \"linux\", \"bit\": \"64\", \"version\": \"1.0\", \"url\": \"http://host.invalid/chromedriver-1.0.zip\"},"
+                + "{\"name\": \"chromedriver\", \"platform\": \"linux\", \"bit\": \"64\", \"version\": \"2.0\", \"url\": \"http://host.invalid/chromedriver-2.0.zip\"}"
+                + "]}").getBytes(StandardCharsets.UTF_8));
+        repository = Repository.loadSnapshot(snapshot);
+        installationDirectory = tempFolder.newFolder("drivers").toPath();
+
+        uut = new VerifyDriversMojo();
+        uut.setLog(log);
+        uut.installationDirectory = installationDirectory.toFile();
+        uut.pluginWorkingDirectory = pluginWorkingDirectory.toFile();
+        uut.drivers.add(configuredDriver("2.0"));
+    }
+
+    @Test
+    public void installedDriverShouldBeVerified() throws Exception {
+        // Given
+        install("2.0");
+
+        // Then
+        assertThatCode(uut::execute).doesNotThrowAnyException();
+    }
+
+    @Test
+    public void missingDriverShouldBeReported() {
+        assertThatThrownBy(uut::execute)
+                .isInstanceOf(MojoFailureException.class)
+                .hasMessageContaining("missing:   chromedriver-linux-64bit version 2.0");
+    }
+
+    @Test
+    public void driverWithoutVersionFileShouldBeReportedAsMissing() throws Exception {
+        // Given
+        install("2.0");
+        Files.delete(installationDirectory.resolve("chromedriver-linux-64bit.version"));
+
+        // Then
+        assertThatThrownBy(uut::execute)
+                .isInstanceOf(MojoFailureException.class)
+                .hasMessageContaining("missing:   chromedriver-linux-64bit version 2.0");
+    }
+
+    @Test
+    public void outdatedDriverShouldBeReported() throws Exception {
+        // Given
+        install("1.0");
+
+        // Then
+        assertThatThrownBy(uut::execute)
+                .isInstanceOf(MojoFailureException.class)
+                .hasMessageContaining("outdated:  chromedriver-linux-64bit version 1.0 is installed, expected version 2.0");
+    }
+
+    @Test
+    public void corruptedDriverShouldBeReported() throws Exception {
+        // Given
+        Driver driver = install("2.0");
+        new DriverManifest(log, installationDirectory).write(driver, installationDirectory.resolve(driver.getFileName()));
+        Files.write(installationDirectory.resolve(driver.getFileName()), "changed".getBytes(StandardCharsets.UTF_8));
+
+        // Then
+        assertThatThrownBy(uut::execute)
+                .isInstanceOf(MojoFailureException.class)
+                .hasMessageContaining("corrupted: chromedriver-linux-64bit version 2.0");
+    }
+
+    @Test
+    public void intactDriverWithManifestShouldBeVerified() throws Exception {
+        // Given
+        Driver driver = install("2.0");
+        new DriverManifest(log, installationDirectory).write(driver, installationDirectory.resolve(driver.getFileName()));
+
+        // Then
+        assertThatCode(uut::execute).doesNotThrowAnyException();
+    }
+
+    @Test
+    public void missingSnapshotShouldFailTheExecution() throws Exception {
+        // Given
+        install("2.0");
+        uut.pluginWorkingDirectory = tempFolder.newFolder("empty");
+
+        // Then
+        assertThatThrownBy(uut::execute)
+                .isInstanceOf(MojoExecutionException.class)
+                .hasMessageContaining("No repository snapshot found");
+    }
+
+    @Test
+    public void driversWithUrlShouldNotNeedSnapshot() throws Exception {
+        // Given
+        Driver driver = install("2.0");
+        uut.pluginWorkingDirectory = null;
+        uut.drivers.clear();
+        uut.drivers.add(driver);
+
+        // Then
+        assertThatCode(uut::execute).doesNotThrowAnyException();
+    }
+
+    private Driver install(String version) throws Exception {
+        Driver driver = repository.enrichDriver(configuredDriver(version));
+        new DriverVersionHandler(installationDirectory).writeVersionFile(driver);
+        Files.write(installationDirectory.resolve(driver.getFileName()), "driver".getBytes(StandardCharsets.UTF_8));
+        return driver;
+    }
+
+    private static Driver configuredDriver(String version) {
+        Driver driver = new Driver();
+        driver.setName("chromedriver");
+        driver.setPlatform("linux");
+        driver.setBit("64");
+        driver.setVersion(version);
+        return driver;
+    }
+}
@@ -0,0 +1,210 @@
+package com.github.webdriverextensions.newversion;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorOutputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorOutputStream;
+
+/**
+ * Generates archives in every format {@link FileExtractorImpl} extracts. The
+ * content is generated from a fixed seed and compresses about 2:1, like the
+ * binaries of a driver, so that the same parameters always result in the same
+ * archive.
+ */
+public class ArchiveGenerator {
+
+    /**
+     * the file names of the archives, which also tell the format. the
+     * compressed formats without tar contain a single file.
+     */
+    public static final String[] FORMATS = {"zip", "tar", "tar.gz", "tar.bz2", "tar.xz", "tar.zst", "gz", "bz2", "xz", "zst"};
+
+    /**
+     * how the content is split into entries
+     */
+    public enum Layout {
+        /**
+         * the whole content in one file
+         */
+        SINGLE_FILE,
+        /**
+         * the content spread evenly over files in directories nested four
+         * levels deep
+         */
+        DEEP_TREE,
+        /**
+         * nine tenths of the content in one binary, the rest in small files
+         * next to it, like in the archive of a browser
+         */
+        LARGE_BINARY
+    }
+
+    private static final int DIRECTORY_FANOUT = 4;
+    private static final int DIRECTORY_DEPTH = 4;
+    private static final long SEED = 42;
+
+    private ArchiveGenerator() {
+    }
+
+    /**
+     * the entries of an archive
+     */
+    public static class Content {
+
+        private final List<String> names = new ArrayList<>();
+        private final List<Long> sizes = new ArrayList<>();
+        private String driver;
+
+        /**
+         * @return the path of the one entry a <code>fileMatchInside</code>
+         * would select. it is placed in the middle of the archive.
+         */
+        public String getDriver() {
+            return driver;
+        }
+
+        /**
+         * @return the summed up size of all files
+         */
+        public long getSize() {
+            return sizes.stream().mapToLong(Long::longValue).sum();
+        }
+
+        public int getEntries() {
+            return names.size();
+        }
+
+        private void add(String name, long size) {
+            names.add(name);
+            sizes.add(size);
+        }
+    }
+
+    /**
+     * @param size the summed up size of all files
+     * @param entries the number of files. ignored for {@link Layout#SINGLE_FILE}
+     * and the compressed formats without tar.
+     */
+    public static Content layout(Layout layout, long size, int entries) {
+        Content content = new Content();
+        if (layout == Layout.SINGLE_FILE || entries <= 1) {
+            content.add("driver", size);
+            content.driver = "driver";
+            return content;
+        }
+        int driverIndex = entries / 2;
+        for (int i = 0; i < entries; i++) {
+            if (layout == Layout.LARGE_BINARY) {
+                long binarySize = size * 9 / 10;
+                long smallFileSize = (size - binarySize) / (entries - 1);
+                if (i == driverIndex) {
+                    content.add("bin/driver", binarySize);
+                    content.driver = "bin/driver";
+                } else {
+                    content.add("lib/file-" + i, smallFileSize);
+                }
+            } else {
+                StringBuilder name = new StringBuilder();
+                for (int level = 0, index = i; level < DIRECTORY_DEPTH; level++, index /= DIRECTORY_FANOUT) {
+                    name.append("dir-").append(index % DIRECTORY_FANOUT).append('/');
+                }
+                name.append("file-").append(i);
+                content.add(name.toString(), size / entries);
+                if (i == driverIndex) {
+                    content.driver = name.toString();
+                }
+            }
+        }
+        return content;
+    }
+
+    /**
+     * writes {@code content} as archive to {@code file}, in the format its
+     * name ends with
+     */
+    public static void write(Path file, Content content) throws IOException {
+        String name = file.getFileName().toString();
+        Random random = new Random(SEED);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            if (name.endsWith(".zip")) {
+                writeZip(out, content, random);
+            } else if (name.endsWith(".tar")) {
+                writeTar(out, content, random);
+            } else if (name.endsWith(".tar.gz") || name.endsWith(".tar.bz2") || name.endsWith(".tar.xz") || name.endsWith(".tar.zst")) {
+                try (OutputStream compressed = compress(out, name)) {
+                    writeTar(compressed, content, random);
+                }
+            } else {
+                try (OutputStream compressed = compress(out, name)) {
+                    writeContent(compressed, content.getSize(), random);
+                }
+            }
+        }
+    }
+
+    private static OutputStream compress(OutputStream out, String name) throws IOException {
+        if (name.endsWith(".gz")) {
+            return new GZIPOutputStream(out, 64 * 1024);
+        } else if (name.endsWith(".bz2")) {
+            return new BZip2CompressorOutputStream(out);
+        } else if (name.endsWith(".xz")) {
+            return new XZCompressorOutputStream(out);
+        } else if (name.endsWith(".zst")) {
+            return new ZstdCompressorOutputStream(out);
+        }
+        throw new IllegalArgumentException("Unknown format of " + name);
+    }
+
+    private static void writeZip(OutputStream out, Content content, Random random) throws IOException {
+        try (ZipArchiveOutputStream zipOutput = new ZipArchiveOutputStream(out)) {
+            for (int i = 0; i < content.names.size(); i++) {
+                ZipArchiveEntry entry = new ZipArchiveEntry(content.names.get(i));
+                entry.setUnixMode(0100755);
+                zipOutput.putArchiveEntry(entry);
+                writeContent(zipOutput, content.sizes.get(i), random);
+                zipOutput.closeArchiveEntry();
+            }
+        }
+    }
+
+    private static void writeTar(OutputStream out, Content content, Random random) throws IOException {
+        try (TarArchiveOutputStream tarOutput = new TarArchiveOutputStream(out)) {
+            tarOutput.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+            for (int i = 0; i < content.names.size(); i++) {
+                TarArchiveEntry entry = new TarArchiveEntry(content.names.get(i));
+                entry.setMode(0100755);
+                entry.setSize(content.sizes.get(i));
+                tarOutput.putArchiveEntry(entry);
+                writeContent(tarOutput, content.sizes.get(i), random);
+                tarOutput.closeArchiveEntry();
+            }
+        }
+    }
+
+    /**
+     * writes bytes taking one of 16 values, which halves their size when
+     * compressed
+     */
+    private static void writeContent(OutputStream out, long size, Random random) throws IOException {
+        byte[] buffer = new byte[8192];
+        for (long remaining = size; remaining > 0; remaining -= buffer.length) {
+            int length = (int) Math.min(buffer.length, remaining);
+            for (int i = 0; i < length; i++) {
+                buffer[i] = (byte) random.nextInt(16);
+            }
+            out.write(buffer, 0, length);
+        }
+    }
+}
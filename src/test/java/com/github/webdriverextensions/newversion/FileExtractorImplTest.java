@@ -1,15 +1,31 @@
 package com.github.webdriverextensions.newversion;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.Arrays;
+import java.util.Date;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.UnixStat;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 class FileExtractorImplTest {
 
@@ -19,7 +35,7 @@ class FileExtractorImplTest {
 
     @DisplayName("extractFile should extract archive containing a single file")
     @ParameterizedTest(name = "{index} ==> for file type/name {0}")
-    @ValueSource(strings = {"single-file.bz2", "single-file.gz", "single-file.tar", "single-file.tar.bz2", "single-file.zip", "single-file.tar.gz"})
+    @ValueSource(strings = {"single-file.bz2", "single-file.gz", "single-file.tar", "single-file.tar.bz2", "single-file.zip", "single-file.tar.gz", "single-file.xz", "single-file.tar.xz", "single-file.zst", "single-file.tar.zst"})
     void extractFile_should_extract_file_containing_a_single_file(final String archiveName, @TempDir final Path toDirectory) throws Exception {
         // Given
         Path singleFileZip = getTestArchive(archiveName);
@@ -35,7 +51,7 @@ class FileExtractorImplTest {
 
     @DisplayName("extractFile should extract archive containing directory structure")
     @ParameterizedTest(name = "{index} ==> for file type/name {0}")
-    @ValueSource(strings = {"directories-and-files.tar", "directories-and-files.tar.bz2", "directories-and-files.tar.gz", "directories-and-files.zip"})
+    @ValueSource(strings = {"directories-and-files.tar", "directories-and-files.tar.bz2", "directories-and-files.tar.gz", "directories-and-files.tar.xz", "directories-and-files.tar.zst", "directories-and-files.zip"})
     void extractFile_should_extract_file_containing_directory_structure(final String archiveName, @TempDir final Path toDirectory) throws Exception {
         // Given
         Path singleFileZip = getTestArchive(archiveName);
@@ -55,9 +71,46 @@ class FileExtractorImplTest {
         });
     }
 
+    @DisplayName("extractFile should detect the format of archive without extension")
+    @ParameterizedTest(name = "{index} ==> for file type/name {0}")
+    @ValueSource(strings = {"directories-and-files.tar", "directories-and-files.tar.bz2", "directories-and-files.tar.gz", "directories-and-files.tar.xz", "directories-and-files.tar.zst", "directories-and-files.zip"})
+    void extractFile_should_detect_format_of_file_without_extension(final String archiveName, @TempDir final Path tempDirectory) throws Exception {
+        // Given
+        Path download = Files.copy(getTestArchive(archiveName), tempDirectory.resolve("download"));
+        Path toDirectory = tempDirectory.resolve("extracted");
+        FileExtractorImpl fileExtractor = new FileExtractorImpl(null);
+
+        // When
+        boolean extractable = fileExtractor.isExtractable(download);
+        fileExtractor.extractFile(download, toDirectory);
+
+        // Then
+        assertThat(extractable).isTrue();
+        assertThat(toDirectory.toFile().list()).containsExactlyInAnyOrder("a-file.txt", "a-directory");
+    }
+
+    @DisplayName("extractFile should detect the format of compressed single file without extension")
+    @ParameterizedTest(name = "{index} ==> for file type/name {0}")
+    @ValueSource(strings = {"single-file.xz", "single-file.zst"})
+    void extractFile_should_detect_format_of_compressed_file_without_extension(final String archiveName, @TempDir final Path tempDirectory) throws Exception {
+        // Given
+        Path download = Files.copy(getTestArchive(archiveName), tempDirectory.resolve("driver"));
+        Path toDirectory = Files.createDirectory(tempDirectory.resolve("extracted"));
+        Path expectedDirectory = Files.createDirectory(tempDirectory.resolve("expected"));
+        FileExtractorImpl fileExtractor = new FileExtractorImpl(null);
+        fileExtractor.extractFile(getTestArchive(archiveName), expectedDirectory);
+
+        // When
+        fileExtractor.extractFile(download, toDirectory);
+
+        // Then
+        assertThat(toDirectory.toFile().list()).containsExactly("driver");
+        assertThat(toDirectory.resolve("driver")).hasSameBinaryContentAs(expectedDirectory.resolve("single-file"));
+    }
+
     @DisplayName("extractFile should extract archive with extract pattern")
     @ParameterizedTest(name = "{index} ==> for file type/name {0}")
-    @ValueSource(strings = {"directories-and-files.tar", "directories-and-files.tar.bz2", "directories-and-files.tar.gz", "directories-and-files.zip"})
+    @ValueSource(strings = {"directories-and-files.tar", "directories-and-files.tar.bz2", "directories-and-files.tar.gz", "directories-and-files.tar.xz", "directories-and-files.tar.zst", "directories-and-files.zip"})
     void extractFile_should_extract_file_with_extract_pattern(final String archiveName, @TempDir final Path toDirectory) throws Exception {
         // Given
         Path singleFileZip = getTestArchive(archiveName);
@@ -90,4 +143,189 @@ class FileExtractorImplTest {
                 .doesNotThrowAnyException();
         assertThat(toDirectory.resolve("directories-and-files").resolve("a-file.txt")).isRegularFile();
     }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"driver.jar", "extension.xpi", "DRIVER.JAR"})
+    void isExtractable_should_be_false_for_zip_based_packages(final String fileName, @TempDir final Path tempDirectory) throws Exception {
+        // Given
+        Path file = tempDirectory.resolve(fileName);
+        try (ZipArchiveOutputStream zipOutput = new ZipArchiveOutputStream(file.toFile())) {
+            addZipEntry(zipOutput, new ZipArchiveEntry("META-INF/MANIFEST.MF"), "Manifest-Version: 1.0");
+        }
+        FileExtractorImpl uut = new FileExtractorImpl(null);
+
+        // Then
+        assertThat(uut.isExtractable(file)).isFalse();
+    }
+
+    @Test
+    void extractFile_should_extract_zip_without_central_directory(@TempDir final Path tempDirectory) throws Exception {
+        // Given
+        byte[] zip = Files.readAllBytes(getTestArchive("directories-and-files.zip"));
+        Path truncatedZip = tempDirectory.resolve("truncated.zip");
+        Files.write(truncatedZip, Arrays.copyOf(zip, indexOf(zip, new byte[]{'P', 'K', 1, 2})));
+        Path toDirectory = tempDirectory.resolve("extracted");
+        FileExtractorImpl fileExtractor = new FileExtractorImpl(".*a-file-in-directory.txt$");
+
+        // When
+        fileExtractor.extractFile(truncatedZip, toDirectory);
+
+        // Then
+        assertThat(toDirectory.toFile().list()).containsExactly("a-file-in-directory.txt");
+        assertThat(toDirectory.resolve("a-file-in-directory.txt")).isNotEmptyFile();
+    }
+
+    @Test
+    void extractFile_should_extract_zip_with_many_entries_in_parallel(@TempDir final Path tempDirectory) throws Exception {
+        // Given
+        Path zip = tempDirectory.resolve("many-entries.zip");
+        try (ZipArchiveOutputStream zipOutput = new ZipArchiveOutputStream(zip.toFile())) {
+            for (int i = 0; i < 200; i++) {
+                // no directory entries, see issue #50
+                addZipEntry(zipOutput, new ZipArchiveEntry("directory-" + i % 10 + "/file-" + i + ".txt"), "content " + i);
+            }
+            addZipEntry(zipOutput, new ZipArchiveEntry("../outside.txt"), "outside");
+            ZipArchiveEntry symlink = new ZipArchiveEntry("a-link");
+            symlink.setUnixMode(UnixStat.LINK_FLAG | 0777);
+            addZipEntry(zipOutput, symlink, "directory-0/file-0.txt");
+        }
+        Path toDirectory = tempDirectory.resolve("extracted");
+        FileExtractorImpl fileExtractor = new FileExtractorImpl(null, null, 4);
+
+        // When
+        fileExtractor.extractFile(zip, toDirectory);
+
+        // Then
+        assertThat(toDirectory.toFile().list()).hasSize(10);
+        for (int i = 0; i < 200; i++) {
+            assertThat(toDirectory.resolve("directory-" + i % 10).resolve("file-" + i + ".txt")).hasContent("content " + i);
+        }
+        assertThat(tempDirectory.resolve("outside.txt")).doesNotExist();
+    }
+
+    @ParameterizedTest(name = "{index} ==> for pattern {0} and count {1}")
+    @CsvSource(value = {"bundle/bin/driver,", "^bundle/bin/driver$,", ".*/bin/driver,1"})
+    void extractFile_should_stop_reading_once_all_matching_files_are_extracted(final String pattern, final Integer count, @TempDir final Path tempDirectory) throws Exception {
+        // Given
+        ByteArrayOutputStream tarContent = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tarOutput = new TarArchiveOutputStream(tarContent)) {
+            TarArchiveEntry driver = new TarArchiveEntry("bundle/bin/driver");
+            byte[] content = "driver".getBytes(StandardCharsets.UTF_8);
+            driver.setSize(content.length);
+            tarOutput.putArchiveEntry(driver);
+            tarOutput.write(content);
+            tarOutput.closeArchiveEntry();
+        }
+        // a header and a record of content, followed by a header that cannot be read
+        byte[] corruptedTar = Arrays.copyOf(tarContent.toByteArray(), 3 * 512);
+        Arrays.fill(corruptedTar, 2 * 512, corruptedTar.length, (byte) 'x');
+        Path tar = tempDirectory.resolve("corrupted-after-driver.tar");
+        Files.write(tar, corruptedTar);
+        Path toDirectory = tempDirectory.resolve("extracted");
+        FileExtractorImpl fileExtractor = new FileExtractorImpl(pattern, count);
+
+        // When
+        fileExtractor.extractFile(tar, toDirectory);
+
+        // Then
+        assertThat(toDirectory.toFile().list()).containsExactly("driver");
+        assertThatThrownBy(() -> new FileExtractorImpl(".*/bin/driver").extractFile(tar, tempDirectory.resolve("unlimited")))
+                .hasCauseInstanceOf(IOException.class);
+    }
+
+    @Test
+    void extractFile_should_apply_permissions_from_archive(@TempDir final Path tempDirectory) throws Exception {
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        // Given
+        ByteArrayOutputStream tarContent = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tarOutput = new TarArchiveOutputStream(tarContent)) {
+            addTarEntry(tarOutput, "driver", 0755);
+            addTarEntry(tarOutput, "README", 0640);
+        }
+        Path tar = tempDirectory.resolve("permissions.tar");
+        Files.write(tar, tarContent.toByteArray());
+        Path zip = tempDirectory.resolve("permissions.zip");
+        try (ZipArchiveOutputStream zipOutput = new ZipArchiveOutputStream(zip.toFile())) {
+            ZipArchiveEntry driver = new ZipArchiveEntry("driver");
+            driver.setUnixMode(UnixStat.FILE_FLAG | 0755);
+            addZipEntry(zipOutput, driver, "driver");
+            ZipArchiveEntry readme = new ZipArchiveEntry("README");
+            readme.setUnixMode(UnixStat.FILE_FLAG | 0640);
+            addZipEntry(zipOutput, readme, "README");
+            // e.g. created on windows
+            addZipEntry(zipOutput, new ZipArchiveEntry("without-mode"), "without mode");
+        }
+        FileExtractorImpl fileExtractor = new FileExtractorImpl(null);
+
+        // When
+        fileExtractor.extractFile(tar, tempDirectory.resolve("from-tar"));
+        fileExtractor.extractFile(zip, tempDirectory.resolve("from-zip"));
+
+        // Then
+        for (String extracted : new String[]{"from-tar", "from-zip"}) {
+            assertThat(Files.getPosixFilePermissions(tempDirectory.resolve(extracted).resolve("driver")))
+                    .contains(PosixFilePermission.OWNER_EXECUTE, PosixFilePermission.OWNER_READ);
+            assertThat(Files.getPosixFilePermissions(tempDirectory.resolve(extracted).resolve("README")))
+                    .contains(PosixFilePermission.OWNER_READ)
+                    .doesNotContain(PosixFilePermission.OWNER_EXECUTE, PosixFilePermission.OTHERS_READ);
+        }
+        assertThat(tempDirectory.resolve("from-zip").resolve("without-mode")).isExecutable();
+    }
+
+    @Test
+    void extractFile_should_keep_modification_times_from_archive(@TempDir final Path tempDirectory) throws Exception {
+        // Given
+        Date lastModified = new Date(1_500_000_000_000L);
+        ByteArrayOutputStream tarContent = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tarOutput = new TarArchiveOutputStream(tarContent)) {
+            TarArchiveEntry driver = new TarArchiveEntry("driver");
+            driver.setModTime(lastModified);
+            driver.setSize(6);
+            tarOutput.putArchiveEntry(driver);
+            tarOutput.write("driver".getBytes(StandardCharsets.UTF_8));
+            tarOutput.closeArchiveEntry();
+        }
+        Path tar = Files.write(tempDirectory.resolve("modification-time.tar"), tarContent.toByteArray());
+        Path zip = tempDirectory.resolve("modification-time.zip");
+        try (ZipArchiveOutputStream zipOutput = new ZipArchiveOutputStream(zip.toFile())) {
+            ZipArchiveEntry driver = new ZipArchiveEntry("driver");
+            driver.setTime(lastModified.getTime());
+            addZipEntry(zipOutput, driver, "driver");
+        }
+
+        // When
+        new FileExtractorImpl(null, null, 1).extractFile(tar, tempDirectory.resolve("from-tar"));
+        new FileExtractorImpl(null, null, 2).extractFile(tar, tempDirectory.resolve("from-pipelined-tar"));
+        new FileExtractorImpl(null).extractFile(zip, tempDirectory.resolve("from-zip"));
+
+        // Then
+        for (String extracted : new String[]{"from-tar", "from-pipelined-tar", "from-zip"}) {
+            assertThat(Files.getLastModifiedTime(tempDirectory.resolve(extracted).resolve("driver")).toMillis()).isEqualTo(lastModified.getTime());
+        }
+    }
+
+    private static void addTarEntry(TarArchiveOutputStream tarOutput, String name, int mode) throws IOException {
+        TarArchiveEntry entry = new TarArchiveEntry(name);
+        byte[] content = name.getBytes(StandardCharsets.UTF_8);
+        entry.setSize(content.length);
+        entry.setMode(mode);
+        tarOutput.putArchiveEntry(entry);
+        tarOutput.write(content);
+        tarOutput.closeArchiveEntry();
+    }
+
+    private static void addZipEntry(ZipArchiveOutputStream zipOutput, ZipArchiveEntry entry, String content) throws IOException {
+        zipOutput.putArchiveEntry(entry);
+        zipOutput.write(content.getBytes(StandardCharsets.UTF_8));
+        zipOutput.closeArchiveEntry();
+    }
+
+    private static int indexOf(byte[] bytes, byte[] sequence) {
+        for (int i = 0; i <= bytes.length - sequence.length; i++) {
+            if (Arrays.equals(Arrays.copyOfRange(bytes, i, i + sequence.length), sequence)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("sequence not found");
+    }
 }
@@ -0,0 +1,100 @@
+package com.github.webdriverextensions.newversion;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileExtractorRegistryTest {
+
+    @Test
+    void fileExtractorFor_should_return_extractor_of_provider_matching_first_bytes(@TempDir final Path tempDirectory) throws Exception {
+        // Given
+        Path file = Files.write(tempDirectory.resolve("download"), "TESTFORMAT content".getBytes(StandardCharsets.UTF_8));
+        FileExtractorRegistry uut = FileExtractorRegistry.load();
+
+        // When
+        FileExtractor fileExtractor = uut.fileExtractorFor(file, "a-pattern", 2);
+
+        // Then
+        assertThat(fileExtractor).isInstanceOf(TestFileExtractor.class);
+        assertThat(((TestFileExtractor) fileExtractor).extractPattern).isEqualTo("a-pattern");
+    }
+
+    @Test
+    void fileExtractorFor_should_return_built_in_extractor_for_other_formats() throws Exception {
+        // Given
+        Path file = Paths.get("src/test/resources/file-extractor-test-data", "single-file.zip");
+        FileExtractorRegistry uut = FileExtractorRegistry.load();
+
+        // When
+        FileExtractor fileExtractor = uut.fileExtractorFor(file, null, null);
+
+        // Then
+        assertThat(fileExtractor).isInstanceOf(FileExtractorImpl.class);
+        assertThat(fileExtractor.isExtractable(file)).isTrue();
+    }
+
+    @Test
+    void fileExtractorFor_should_return_built_in_extractor_for_short_files(@TempDir final Path tempDirectory) throws Exception {
+        // Given
+        Path file = Files.write(tempDirectory.resolve("download"), "TEST".getBytes(StandardCharsets.UTF_8));
+        FileExtractorRegistry uut = FileExtractorRegistry.load();
+
+        // When
+        FileExtractor fileExtractor = uut.fileExtractorFor(file, null, null);
+
+        // Then
+        assertThat(fileExtractor).isInstanceOf(FileExtractorImpl.class);
+        assertThat(fileExtractor.isExtractable(file)).isFalse();
+    }
+
+    @Test
+    void fileExtractorFor_should_pass_format_detected_from_first_bytes_to_built_in_extractor(@TempDir final Path tempDirectory) throws Exception {
+        // Given
+        Path file = tempDirectory.resolve("download");
+        Files.copy(Paths.get("src/test/resources/file-extractor-test-data", "single-file.zip"), file);
+        FileExtractorRegistry uut = FileExtractorRegistry.load();
+
+        // When
+        FileExtractor fileExtractor = uut.fileExtractorFor(file, null, null);
+        // not read again to detect the format
+        Files.write(file, "no archive".getBytes(StandardCharsets.UTF_8));
+
+        // Then
+        assertThat(fileExtractor.isExtractable(file)).isTrue();
+    }
+
+    public static class TestFileExtractorProvider implements FileExtractorProvider {
+        @Override
+        public byte[] getMagicBytes() {
+            return "TESTFORMAT".getBytes(StandardCharsets.US_ASCII);
+        }
+
+        @Override
+        public FileExtractor createFileExtractor(String extractPattern, Integer expectedMatches) {
+            return new TestFileExtractor(extractPattern);
+        }
+    }
+
+    static class TestFileExtractor implements FileExtractor {
+        private final String extractPattern;
+
+        TestFileExtractor(String extractPattern) {
+            this.extractPattern = extractPattern;
+        }
+
+        @Override
+        public boolean isExtractable(Path file) {
+            return true;
+        }
+
+        @Override
+        public void extractFile(Path file, Path toDirectory) {
+        }
+    }
+}
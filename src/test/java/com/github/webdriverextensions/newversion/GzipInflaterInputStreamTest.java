@@ -0,0 +1,118 @@
+package com.github.webdriverextensions.newversion;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipParameters;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GzipInflaterInputStreamTest {
+
+    @Test
+    void shouldDecompressMemberWithOptionalHeaderFields() throws Exception {
+        // Given
+        GzipParameters parameters = new GzipParameters();
+        parameters.setFileName("a-file.txt");
+        parameters.setComment("a comment");
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GzipCompressorOutputStream gzip = new GzipCompressorOutputStream(compressed, parameters)) {
+            gzip.write(content("content"));
+        }
+
+        // Then
+        assertThat(decompress(compressed.toByteArray())).isEqualTo(content("content"));
+    }
+
+    @Test
+    void shouldDecompressConcatenatedMembers() throws Exception {
+        // Given
+        byte[] compressed = concat(gzip(content("first")), gzip(content("second")));
+
+        // Then
+        assertThat(decompress(compressed)).isEqualTo(content("firstsecond"));
+    }
+
+    @Test
+    void shouldIgnoreTrailingData() throws Exception {
+        // Given
+        byte[] compressed = concat(gzip(content("content")), new byte[]{0, 0, 0, 0});
+
+        // Then
+        assertThat(decompress(compressed)).isEqualTo(content("content"));
+    }
+
+    @Test
+    void shouldDecompressLargeContent() throws Exception {
+        // Given
+        byte[] content = new byte[3 * BufferPool.BUFFER_SIZE];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i * 31 % 251);
+        }
+
+        // Then
+        assertThat(decompress(gzip(content))).isEqualTo(content);
+    }
+
+    @Test
+    void shouldFailForCorruptedData() throws Exception {
+        // Given
+        byte[] compressed = gzip(content("content"));
+        // crc of the content
+        compressed[compressed.length - 8] ^= 0x55;
+
+        // Then
+        assertThatThrownBy(() -> decompress(compressed)).isInstanceOf(ZipException.class);
+    }
+
+    @Test
+    void shouldFailForTruncatedData() throws Exception {
+        // Given
+        byte[] compressed = gzip(content("content"));
+
+        // Then
+        assertThatThrownBy(() -> decompress(Arrays.copyOf(compressed, compressed.length - 10))).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void shouldFailForOtherFormat() {
+        assertThatThrownBy(() -> decompress(content("not gzip"))).isInstanceOf(ZipException.class);
+    }
+
+    private static byte[] decompress(byte[] compressed) throws IOException {
+        ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+        try (InputStream uut = new GzipInflaterInputStream(new ByteArrayInputStream(compressed))) {
+            byte[] buffer = new byte[1000];
+            for (int count = uut.read(buffer); count != -1; count = uut.read(buffer)) {
+                decompressed.write(buffer, 0, count);
+            }
+        }
+        return decompressed.toByteArray();
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(content);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] content(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
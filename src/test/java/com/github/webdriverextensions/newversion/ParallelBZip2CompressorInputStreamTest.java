@@ -0,0 +1,139 @@
+package com.github.webdriverextensions.newversion;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParallelBZip2CompressorInputStreamTest {
+
+    @TempDir
+    Path tempDirectory;
+
+    @Test
+    void shouldDecompressFileWithManyBlocks() throws Exception {
+        // Given
+        byte[] content = createContent(2 * 1024 * 1024, 1);
+        Path file = compress("many-blocks.bz2", content);
+
+        // When
+        byte[] decompressed = decompress(file);
+
+        // Then
+        assertThat(decompressed).isEqualTo(content);
+    }
+
+    @Test
+    void shouldDecompressConcatenatedStreams() throws Exception {
+        // Given
+        byte[] first = createContent(300 * 1024, 1);
+        byte[] second = createContent(300 * 1024, 2);
+        Path file = tempDirectory.resolve("concatenated.bz2");
+        Files.write(file, concat(Files.readAllBytes(compress("first.bz2", first)), Files.readAllBytes(compress("second.bz2", second))));
+
+        // When
+        byte[] decompressed = decompress(file);
+
+        // Then
+        assertThat(decompressed).isEqualTo(concat(first, second));
+    }
+
+    @Test
+    void shouldFailForCorruptedFile() throws Exception {
+        // Given
+        byte[] compressed = Files.readAllBytes(compress("valid.bz2", createContent(300 * 1024, 1)));
+        compressed[compressed.length / 2] ^= 0x55;
+        Path file = tempDirectory.resolve("corrupted.bz2");
+        Files.write(file, compressed);
+
+        // Then
+        assertThatThrownBy(() -> decompress(file)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void shouldFailForOtherFormat() throws Exception {
+        // Given
+        Path file = tempDirectory.resolve("not-bzip2.bz2");
+        Files.write(file, "not bzip2".getBytes(StandardCharsets.UTF_8));
+
+        // Then
+        assertThatThrownBy(() -> new ParallelBZip2CompressorInputStream(file, 4)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void blockThatCannotBeDecodedAloneShouldBeDecodedTogetherWithTheNextBlock() throws Exception {
+        // Given
+        // block 1 has been split by a spurious block boundary and can only be decoded together with block 2
+        try (InputStream uut = new ParallelBlockInputStream(2) {
+            @Override
+            protected int blockCount() {
+                return 4;
+            }
+
+            @Override
+            protected byte[] decode(int firstBlock, int endBlock) throws IOException {
+                if (firstBlock == 1 || firstBlock == 2) {
+                    if (firstBlock != 1 || endBlock != 3) {
+                        throw new IOException("not a complete block");
+                    }
+                }
+                return ("[" + firstBlock + "," + endBlock + ")").getBytes(StandardCharsets.UTF_8);
+            }
+        }) {
+            // Then
+            assertThat(readAll(uut)).asString(StandardCharsets.UTF_8).isEqualTo("[0,1)[1,3)[3,4)");
+        }
+    }
+
+    private byte[] decompress(Path file) throws IOException {
+        try (InputStream uut = new ParallelBZip2CompressorInputStream(file, 4)) {
+            return readAll(uut);
+        }
+    }
+
+    private Path compress(String fileName, byte[] content) throws IOException {
+        Path file = tempDirectory.resolve(fileName);
+        // the smallest block size results in the most blocks
+        try (OutputStream bzip2 = new BZip2CompressorOutputStream(Files.newOutputStream(file), 1)) {
+            bzip2.write(content);
+        }
+        return file;
+    }
+
+    private static byte[] createContent(int size, long seed) {
+        String[] words = {"chromedriver", "geckodriver", "edgedriver", "operadriver", "linux", "mac", "windows", "64bit", "32bit", "\n"};
+        Random random = new Random(seed);
+        ByteArrayOutputStream content = new ByteArrayOutputStream(size);
+        while (content.size() < size) {
+            byte[] word = (words[random.nextInt(words.length)] + random.nextInt(1000) + " ").getBytes(StandardCharsets.UTF_8);
+            content.write(word, 0, word.length);
+        }
+        return Arrays.copyOf(content.toByteArray(), size);
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int count = in.read(buffer); count != -1; count = in.read(buffer)) {
+            out.write(buffer, 0, count);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
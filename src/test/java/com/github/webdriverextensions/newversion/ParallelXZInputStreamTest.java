@@ -0,0 +1,83 @@
+package com.github.webdriverextensions.newversion;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.tukaani.xz.LZMA2Options;
+import org.tukaani.xz.XZOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParallelXZInputStreamTest {
+
+    @TempDir
+    Path tempDirectory;
+
+    @Test
+    void shouldDecompressFileWithManyBlocks() throws Exception {
+        // Given
+        byte[] content = createContent(1024 * 1024);
+        Path file = compress("many-blocks.xz", content, 100 * 1024);
+
+        // When
+        byte[] decompressed;
+        try (InputStream uut = ParallelXZInputStream.open(file.toFile(), 4, Long.MAX_VALUE)) {
+            decompressed = readAll(uut);
+        }
+
+        // Then
+        assertThat(decompressed).isEqualTo(content);
+    }
+
+    @Test
+    void shouldNotDecompressFileWithSingleBlockInParallel() throws Exception {
+        // Given
+        Path file = compress("single-block.xz", createContent(1024 * 1024), Integer.MAX_VALUE);
+
+        // Then
+        assertThat(ParallelXZInputStream.open(file.toFile(), 4, Long.MAX_VALUE)).isNull();
+    }
+
+    @Test
+    void shouldNotDecompressFileWithTooLargeBlocksInParallel() throws Exception {
+        // Given
+        Path file = compress("large-blocks.xz", createContent(1024 * 1024), 512 * 1024);
+
+        // Then
+        assertThat(ParallelXZInputStream.open(file.toFile(), 4, 256 * 1024)).isNull();
+    }
+
+    private Path compress(String fileName, byte[] content, int blockSize) throws IOException {
+        Path file = tempDirectory.resolve(fileName);
+        try (XZOutputStream xz = new XZOutputStream(Files.newOutputStream(file), new LZMA2Options(1))) {
+            for (int offset = 0; offset < content.length; offset += blockSize) {
+                xz.write(content, offset, Math.min(blockSize, content.length - offset));
+                xz.endBlock();
+            }
+        }
+        return file;
+    }
+
+    private static byte[] createContent(int size) {
+        byte[] content = new byte[size];
+        Random random = new Random(1);
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) ('a' + random.nextInt(4));
+        }
+        return content;
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int count = in.read(buffer); count != -1; count = in.read(buffer)) {
+            out.write(buffer, 0, count);
+        }
+        return out.toByteArray();
+    }
+}
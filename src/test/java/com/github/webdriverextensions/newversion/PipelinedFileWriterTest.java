@@ -0,0 +1,115 @@
+package com.github.webdriverextensions.newversion;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.FileTime;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class PipelinedFileWriterTest {
+
+    @TempDir
+    Path tempDirectory;
+
+    @Test
+    void shouldWriteAllFilesBeforeClosing() throws Exception {
+        // Given
+        byte[] large = new byte[5 * BufferPool.BUFFER_SIZE + 17];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = (byte) i;
+        }
+        FileTime lastModifiedTime = FileTime.fromMillis(1_500_000_000_000L);
+
+        // When
+        try (PipelinedFileWriter uut = new PipelinedFileWriter()) {
+            uut.write(new ByteArrayInputStream(large), tempDirectory.resolve("large"), lastModifiedTime);
+            uut.write(new ByteArrayInputStream(new byte[0]), tempDirectory.resolve("empty"), null);
+            for (int i = 0; i < 20; i++) {
+                uut.write(new ByteArrayInputStream(new byte[]{(byte) i}), tempDirectory.resolve("small-" + i), null);
+            }
+        }
+
+        // Then
+        assertThat(tempDirectory.resolve("large")).hasBinaryContent(large);
+        assertThat(Files.getLastModifiedTime(tempDirectory.resolve("large"))).isEqualTo(lastModifiedTime);
+        assertThat(tempDirectory.resolve("empty")).isEmptyFile();
+        for (int i = 0; i < 20; i++) {
+            assertThat(tempDirectory.resolve("small-" + i)).hasBinaryContent(new byte[]{(byte) i});
+        }
+    }
+
+    @Test
+    void shouldReportFailureOfWriterThread() throws Exception {
+        // Given
+        Files.createFile(tempDirectory.resolve("existing"));
+
+        // Then
+        assertThatThrownBy(() -> {
+            try (PipelinedFileWriter uut = new PipelinedFileWriter()) {
+                uut.write(new ByteArrayInputStream(new byte[BufferPool.BUFFER_SIZE * 10]), tempDirectory.resolve("existing"), null);
+            }
+        }).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void shouldReturnBufferIfReadingFails() {
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            try (PipelinedFileWriter uut = new PipelinedFileWriter()) {
+                // more failures than buffers, so that a lost buffer blocks the next write
+                for (int i = 0; i < 10; i++) {
+                    Path target = tempDirectory.resolve("failed-" + i);
+                    assertThatThrownBy(() -> uut.write(new FailingInputStream(), target, null)).hasMessage("broken archive");
+                }
+
+                uut.write(new ByteArrayInputStream(new byte[]{42}), tempDirectory.resolve("written"), null);
+            }
+
+            assertThat(tempDirectory.resolve("written")).hasBinaryContent(new byte[]{42});
+        });
+    }
+
+    @Test
+    void shouldReportErrorOfWriterThread() {
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            assertThatThrownBy(() -> {
+                try (PipelinedFileWriter uut = new PipelinedFileWriter()) {
+                    // more content than buffers, so that a writer thread that stopped draining blocks the write
+                    uut.write(new ByteArrayInputStream(new byte[BufferPool.BUFFER_SIZE * 10]), tempDirectory.resolve("failed"), null, new ErrorAttribute());
+                }
+            }).isInstanceOf(IOException.class).hasRootCauseInstanceOf(OutOfMemoryError.class);
+        });
+    }
+
+    /**
+     * fails the writer thread with an error when it creates the file
+     */
+    private static class ErrorAttribute implements FileAttribute<Object> {
+
+        @Override
+        public String name() {
+            throw new OutOfMemoryError("no memory left for the attribute name");
+        }
+
+        @Override
+        public Object value() {
+            return null;
+        }
+    }
+
+    private static class FailingInputStream extends InputStream {
+
+        @Override
+        public int read() throws IOException {
+            throw new IOException("broken archive");
+        }
+    }
+}
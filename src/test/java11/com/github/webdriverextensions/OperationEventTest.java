@@ -0,0 +1,102 @@
+package com.github.webdriverextensions;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OperationEventTest extends LocalServerTestBase {
+
+    private static final String REPOSITORY_LOAD = "com.github.webdriverextensions.RepositoryLoad";
+    private static final String DOWNLOAD = "com.github.webdriverextensions.Download";
+    private static final String EXTRACT = "com.github.webdriverextensions.Extract";
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void endShouldRecordEnabledEvent() throws Exception {
+        // Given
+        Driver driver = new Driver();
+        driver.setName("testdriver");
+        driver.setPlatform("linux");
+        driver.setBit("64");
+        driver.setVersion("1.0");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(DOWNLOAD);
+            recording.start();
+
+            // When
+            OperationEvent.begin(OperationEvent.Type.DOWNLOAD).driver(driver).bytes(42).cacheStatus("hit").end();
+
+            // Then
+            List<RecordedEvent> events = stopAndRead(recording, DOWNLOAD);
+            assertThat(events).hasSize(1);
+            assertThat(events.get(0).getString("driverId")).isEqualTo(driver.getId());
+            assertThat(events.get(0).getString("driverVersion")).isEqualTo("1.0");
+            assertThat(events.get(0).getLong("bytes")).isEqualTo(42);
+            assertThat(events.get(0).getString("cacheStatus")).isEqualTo("hit");
+        }
+    }
+
+    @Test
+    public void endShouldNotRecordDisabledEvent() throws Exception {
+        try (Recording recording = new Recording()) {
+            recording.disable(EXTRACT);
+            recording.start();
+
+            // When
+            OperationEvent.begin(OperationEvent.Type.EXTRACT).bytes(42).end();
+
+            // Then
+            assertThat(stopAndRead(recording, EXTRACT)).isEmpty();
+        }
+    }
+
+    @Test
+    public void repositoryLoadShouldRecordDownloadedBytes() throws Exception {
+        // Given
+        // multibyte characters, so that the number of bytes differs from the number of chars
+        byte[] content = "{\"drivers\": [], \"description\": \"Prüfung\"}".getBytes(StandardCharsets.UTF_8);
+        server.register("/repository.json", (request, response, context) -> {
+            response.setCode(HttpStatus.SC_OK);
+            response.setEntity(new ByteArrayEntity(content, ContentType.APPLICATION_JSON));
+        });
+        start();
+
+        try (Recording recording = new Recording()) {
+            recording.enable(REPOSITORY_LOAD);
+            recording.start();
+
+            // When
+            Repository.load(getCompleteUrlFor("/repository.json"), Optional.empty());
+
+            // Then
+            List<RecordedEvent> events = stopAndRead(recording, REPOSITORY_LOAD);
+            assertThat(events).hasSize(1);
+            assertThat(events.get(0).getLong("bytes")).isEqualTo(content.length);
+        }
+    }
+
+    private List<RecordedEvent> stopAndRead(Recording recording, String eventName) throws Exception {
+        recording.stop();
+        Path dump = tempFolder.getRoot().toPath().resolve("recording.jfr");
+        recording.dump(dump);
+        return RecordingFile.readAllEvents(dump).stream()
+                .filter(event -> event.getEventType().getName().equals(eventName))
+                .collect(Collectors.toList());
+    }
+}